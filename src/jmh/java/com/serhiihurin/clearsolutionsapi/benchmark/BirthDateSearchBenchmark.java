@@ -0,0 +1,90 @@
+package com.serhiihurin.clearsolutionsapi.benchmark;
+
+import com.serhiihurin.clearsolutionsapi.ClearsolutionsapiApplication;
+import com.serhiihurin.clearsolutionsapi.dto.BulkImportReportDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.search.BirthDateIndex;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserImportService;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the birth date search through UserService, served by the keyset JPA query or by the
+ * in-memory {@link BirthDateIndex}. The application runs without a web server on an in-memory H2
+ * database (MySQL mode).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BirthDateSearchBenchmark {
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1940, 1, 1);
+    private static final int BIRTH_DATE_SPAN_DAYS = 24000;
+
+    @Param({"false", "true"})
+    public boolean index;
+
+    @Param({"200000"})
+    public int users;
+
+    @Param({"100"})
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ClearsolutionsapiApplication.class).run(
+                "--spring.main.web-application-type=none",
+                "--spring.datasource.url=jdbc:h2:mem:birth_date_search_" + index + ";MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--custom.search.index.enabled=" + index,
+                "--logging.level.root=WARN"
+        );
+        Random random = new Random(42);
+        List<UserRequestDTO> userRequests = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userRequests.add(UserRequestDTO.builder()
+                    .email("user" + i + "@example.com")
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .birthDate(FIRST_BIRTH_DATE.plusDays(random.nextInt(BIRTH_DATE_SPAN_DAYS)).toString())
+                    .build());
+        }
+        BulkImportReportDTO report = context.getBean(UserImportService.class).importUsers(userRequests.iterator());
+        if (report.getFailedRows() != 0) {
+            throw new IllegalStateException("Seeding failed: " + report.getErrors());
+        }
+        if (index) {
+            //the scheduled load may have run before the seeding
+            context.getBean(BirthDateIndex.class).refresh();
+        }
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserSummaryDTO> searchOneYearPage() {
+        LocalDate fromDate = FIRST_BIRTH_DATE.plusDays(ThreadLocalRandom.current().nextInt(BIRTH_DATE_SPAN_DAYS));
+        return userService.searchUsersByBirthDate(fromDate.toString(), fromDate.plusYears(1).toString(), null, pageSize);
+    }
+}
@@ -0,0 +1,88 @@
+package com.serhiihurin.clearsolutionsapi.benchmark;
+
+import com.serhiihurin.clearsolutionsapi.ClearsolutionsapiApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Rejected requests through the DispatcherServlet, from the controller to the ApiExceptionDTO body, without
+ * a database round trip. The baseline records stack traces of ApiException and logs every warning, as
+ * before stackless exceptions and rate-limited warnings; the optimized variant runs the defaults.
+ * Warnings are written to the console like in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ErrorResponseBenchmark {
+    private static final String TOO_YOUNG_USER = """
+            {"email":"young@example.com","firstName":"First","lastName":"Last","birthDate":"%s"}"""
+            .formatted(LocalDate.now().minusYears(10));
+
+    @Param({"baseline", "optimized"})
+    public String errorPath;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        boolean baseline = "baseline".equals(errorPath);
+        //read once when ApiException is loaded, each parameter runs in its own fork
+        System.setProperty("api.exceptions.stack-traces", String.valueOf(baseline));
+        context = new SpringApplicationBuilder(ClearsolutionsapiApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:error_response;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--custom.write-throttling.rate-limit.enabled=false",
+                "--custom.write-throttling.concurrency-limit.enabled=false",
+                "--custom.error-log.warnings-per-second=" + (baseline ? "1000000000" : "10"),
+                "--custom.error-log.burst=" + (baseline ? "1000000" : "50"),
+                "--logging.level.root=WARN"
+        );
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int invalidSearchDate() throws Exception {
+        return expectStatus(400, mockMvc.perform(get("/api/users/search")
+                .param("fromDate", "01-01-2000")
+                .param("toDate", "2000-12-31")).andReturn());
+    }
+
+    @Benchmark
+    public int userTooYoung() throws Exception {
+        return expectStatus(403, mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TOO_YOUNG_USER)).andReturn());
+    }
+
+    private static int expectStatus(int status, MvcResult result) throws Exception {
+        if (result.getResponse().getStatus() != status) {
+            throw new IllegalStateException("Unexpected status " + result.getResponse().getStatus()
+                    + ": " + result.getResponse().getContentAsString());
+        }
+        return result.getResponse().getContentAsByteArray().length;
+    }
+}
@@ -0,0 +1,96 @@
+package com.serhiihurin.clearsolutionsapi.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Closed-loop load generator for GET /api/users against an already running instance, used to compare the
+ * platform thread and virtual thread (or reactive) modes under the same number of concurrent connections.
+ * Every client keeps one request in flight and picks a random seeded email; the users must be imported
+ * beforehand (emails userN@example.com, see UserApiThroughputBenchmark).
+ *
+ * <p>Arguments: base url, concurrent clients, duration in seconds, number of seeded users.
+ */
+public class UserApiLoadTest {
+    //latencies are recorded in 100 microsecond buckets up to 10 seconds
+    private static final int LATENCY_BUCKETS = 100_000;
+    private static final long BUCKET_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = args[0];
+        int concurrency = Integer.parseInt(args[1]);
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(args[2]));
+        int users = Integer.parseInt(args[3]);
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+        for (int i = 0; i < concurrency; i++) {
+            clients.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    int user = ThreadLocalRandom.current().nextInt(users);
+                    HttpRequest request = HttpRequest.newBuilder(
+                                    URI.create(baseUrl + "?email=user" + user + "@example.com"))
+                            .timeout(Duration.ofSeconds(10))
+                            .GET()
+                            .build();
+                    long requestStart = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() == 200) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                    long bucket = (System.nanoTime() - requestStart) / BUCKET_NANOS;
+                    latencies.incrementAndGet((int) Math.min(bucket, LATENCY_BUCKETS - 1));
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(durationNanos + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] histogram = new long[LATENCY_BUCKETS];
+        Arrays.setAll(histogram, latencies::get);
+        System.out.printf("concurrency=%d duration=%.1fs succeeded=%d failed=%d throughput=%.0f req/s%n",
+                concurrency, seconds, succeeded.get(), failed.get(), succeeded.get() / seconds);
+        System.out.printf("latency p50=%.1fms p90=%.1fms p99=%.1fms p99.9=%.1fms%n",
+                percentile(histogram, 0.5), percentile(histogram, 0.9),
+                percentile(histogram, 0.99), percentile(histogram, 0.999));
+    }
+
+    private static double percentile(long[] histogram, double quantile) {
+        long total = Arrays.stream(histogram).sum();
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= rank && seen > 0) {
+                return (i + 1) * BUCKET_NANOS / 1e6;
+            }
+        }
+        return Double.NaN;
+    }
+}
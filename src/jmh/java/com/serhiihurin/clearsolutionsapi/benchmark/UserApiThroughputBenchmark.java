@@ -0,0 +1,115 @@
+package com.serhiihurin.clearsolutionsapi.benchmark;
+
+import com.serhiihurin.clearsolutionsapi.ClearsolutionsapiApplication;
+import com.serhiihurin.clearsolutionsapi.dto.BulkImportReportDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserImportService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput of the user API: the full application on a random port, either the servlet stack
+ * (Tomcat, JPA) or the reactive profile (Netty, R2DBC), backed by an in-memory H2 database (MySQL mode)
+ * seeded through the bulk import service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class UserApiThroughputBenchmark {
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1950, 1, 1);
+
+    @Param({"20000"})
+    public int users;
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:throughput;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--logging.level.root=WARN"
+        ));
+        if ("reactive".equals(stack)) {
+            //same in-process H2 database as the JDBC url, the schema is created by the Flyway migrations
+            arguments.add("--spring.profiles.active=reactive");
+            arguments.add("--spring.r2dbc.url=r2dbc:h2:mem:///throughput;MODE=MySQL;DB_CLOSE_DELAY=-1");
+            arguments.add("--spring.r2dbc.username=sa");
+            arguments.add("--spring.r2dbc.password=");
+        }
+        context = new SpringApplicationBuilder(ClearsolutionsapiApplication.class).run(arguments.toArray(String[]::new));
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/users";
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        //the reactive stack has no bulk endpoint, both stacks are seeded through the service
+        List<UserRequestDTO> userRequests = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            userRequests.add(UserRequestDTO.builder()
+                    .email("user" + i + "@example.com")
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .birthDate(birthDate(i).toString())
+                    .build());
+        }
+        BulkImportReportDTO report = context.getBean(UserImportService.class).importUsers(userRequests.iterator());
+        if (report.getFailedRows() != 0) {
+            throw new IllegalStateException("Seeding failed: " + report.getErrors());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getUser() throws IOException, InterruptedException {
+        int i = ThreadLocalRandom.current().nextInt(users);
+        return send(baseUrl + "?email=user" + i + "@example.com");
+    }
+
+    @Benchmark
+    public int searchUsersPage() throws IOException, InterruptedException {
+        LocalDate fromDate = birthDate(ThreadLocalRandom.current().nextInt(users));
+        return send(baseUrl + "/search?fromDate=" + fromDate + "&toDate=" + fromDate.plusYears(1));
+    }
+
+    private int send(String url) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + " for " + url);
+        }
+        return response.body().length;
+    }
+
+    private static LocalDate birthDate(int i) {
+        return FIRST_BIRTH_DATE.plusDays(i % 18000);
+    }
+}
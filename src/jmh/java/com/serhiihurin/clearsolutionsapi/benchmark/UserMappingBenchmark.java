@@ -0,0 +1,77 @@
+package com.serhiihurin.clearsolutionsapi.benchmark;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.mapper.UserMapper;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response mapping as done by UserController: the former ModelMapper (LOOSE strategy, type token for lists)
+ * against the hand-written {@link UserMapper}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserMappingBenchmark {
+    private static final Type RESPONSE_LIST_TYPE = new TypeToken<List<UserResponseDTO>>() {
+    }.getType();
+
+    @Param({"100", "1000"})
+    public int listSize;
+
+    private ModelMapper modelMapper;
+    private User user;
+    private List<UserSummaryDTO> userSummaries;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.LOOSE);
+        user = User.builder()
+                .email("user@example.com")
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(LocalDate.of(1990, 5, 17))
+                .address("Street 1")
+                .phoneNumber("+380123456789")
+                .build();
+        userSummaries = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            userSummaries.add(new UserSummaryDTO(
+                    "user" + i + "@example.com", "First" + i, "Last" + i, LocalDate.of(1990, 1, 1).plusDays(i)));
+        }
+    }
+
+    @Benchmark
+    public UserResponseDTO modelMapperSingle() {
+        return modelMapper.map(user, UserResponseDTO.class);
+    }
+
+    @Benchmark
+    public UserResponseDTO userMapperSingle() {
+        return UserMapper.toResponse(user);
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> modelMapperList() {
+        return modelMapper.map(userSummaries, RESPONSE_LIST_TYPE);
+    }
+
+    @Benchmark
+    public List<UserResponseDTO> userMapperList() {
+        return UserMapper.toResponses(userSummaries);
+    }
+}
@@ -0,0 +1,110 @@
+package com.serhiihurin.clearsolutionsapi.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Birth date range search over a seeded users table, with and without the
+ * (birth_date, email) index declared on the User entity. Runs against an in-memory
+ * H2 database in MySQL mode using the same SQL shape Hibernate generates for the
+ * projected keyset page query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSearchIndexBenchmark {
+    private static final LocalDate MIN_BIRTH_DATE = LocalDate.of(1940, 1, 1);
+    private static final LocalDate MAX_BIRTH_DATE = LocalDate.of(2005, 12, 31);
+    private static final String SEARCH_QUERY = """
+            select email, first_name, last_name, birth_date from users
+            where birth_date between ? and ?
+            order by birth_date, email
+            limit 100""";
+
+    @Param({"false", "true"})
+    public boolean indexed;
+
+    @Param({"200000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement searchStatement;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void seed() throws SQLException {
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:users_index_" + indexed + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    create table users (
+                        email varchar(255) not null primary key,
+                        first_name varchar(255),
+                        last_name varchar(255),
+                        birth_date date,
+                        address varchar(255),
+                        phone_number varchar(255)
+                    )""");
+        }
+        Random seedRandom = new Random(42);
+        long dateSpan = MAX_BIRTH_DATE.toEpochDay() - MIN_BIRTH_DATE.toEpochDay();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into users (email, first_name, last_name, birth_date, address, phone_number) "
+                        + "values (?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, "user" + i + "@example.com");
+                insert.setString(2, "First" + i);
+                insert.setString(3, "Last" + i);
+                insert.setDate(4, Date.valueOf(
+                        MIN_BIRTH_DATE.plusDays(seedRandom.nextLong(dateSpan + 1))));
+                insert.setString(5, "Street " + i);
+                insert.setString(6, "+380" + (100000000 + i));
+                insert.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        if (indexed) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create index idx_users_birth_date_email on users (birth_date, email)");
+            }
+        }
+        searchStatement = connection.prepareStatement(SEARCH_QUERY);
+        random = new Random(7);
+    }
+
+    @TearDown(Level.Trial)
+    public void shutdown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("shutdown");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public void searchOneMonth(Blackhole blackhole) throws SQLException {
+        LocalDate fromDate = MIN_BIRTH_DATE.plusMonths(random.nextInt(12 * 60));
+        searchStatement.setDate(1, Date.valueOf(fromDate));
+        searchStatement.setDate(2, Date.valueOf(fromDate.plusMonths(1)));
+        try (ResultSet resultSet = searchStatement.executeQuery()) {
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getString(1));
+                blackhole.consume(resultSet.getString(2));
+                blackhole.consume(resultSet.getString(3));
+            }
+        }
+    }
+}
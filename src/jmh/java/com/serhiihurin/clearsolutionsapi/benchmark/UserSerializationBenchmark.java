@@ -0,0 +1,51 @@
+package com.serhiihurin.clearsolutionsapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of search responses, using an ObjectMapper configured like Spring Boot's default one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSerializationBenchmark {
+    @Param({"100", "1000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter listWriter;
+    private List<UserResponseDTO> users;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        listWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, UserResponseDTO.class));
+        users = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            users.add(new UserResponseDTO("user" + i + "@example.com", "First" + i, "Last" + i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeWithObjectMapper() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] serializeWithPrefetchedWriter() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(users);
+    }
+}
@@ -0,0 +1,52 @@
+package com.serhiihurin.clearsolutionsapi.benchmark;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.validation.UserRequestValidator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request validation done before any repository call: the createUser rules (phone number and date
+ * format, date parsing, age) and the argument parsing of searchUsersByBirthDate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserValidationBenchmark {
+    private UserRequestValidator userRequestValidator;
+    private UserRequestDTO userRequestDTO;
+
+    @Setup
+    public void setUp() {
+        userRequestValidator = new UserRequestValidator();
+        ReflectionTestUtils.setField(userRequestValidator, "MINIMAL_ALLOWED_AGE", 18);
+        userRequestDTO = UserRequestDTO.builder()
+                .email("user@example.com")
+                .firstName("First")
+                .lastName("Last")
+                .birthDate("1990-05-17")
+                .address("Street 1")
+                .phoneNumber("+380123456789")
+                .build();
+    }
+
+    @Benchmark
+    public User createUserValidation() {
+        return userRequestValidator.toNewUser(userRequestDTO);
+    }
+
+    @Benchmark
+    public void searchArgumentParsing(Blackhole blackhole) {
+        LocalDate fromDate = userRequestValidator.parseDate("1990-01-01");
+        LocalDate toDate = userRequestValidator.parseDate("1999-12-31");
+        blackhole.consume(fromDate.isAfter(toDate));
+    }
+}
@@ -0,0 +1,137 @@
+package com.serhiihurin.clearsolutionsapi.bloom;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter with 4-bit counters instead of bits, so that elements can be removed again. Counters are
+ * packed sixteen per long and changed with compare-and-set, adds, removes and lookups need no lock.
+ * A counter that reached 15 is never decremented: it may keep reporting a removed element, it never
+ * drops an element still present. Elements are given as 64-bit hashes, split into the two hashes of
+ * the Kirsch-Mitzenmacher scheme.
+ */
+public final class CountingBloomFilter {
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xF;
+    private static final long MAX_COUNT = 15;
+    private static final long MIN_COUNTERS = 64;
+    private static final double LN_2 = Math.log(2);
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashFunctions;
+
+    CountingBloomFilter(long counters, int hashFunctions) {
+        this.words = new AtomicLongArray(Math.toIntExact((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+        this.counters = counters;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Sized for the expected number of elements and false positive rate, with fewer counters (and a
+     * higher rate) if that would not fit in the memory budget.
+     */
+    public static CountingBloomFilter create(long expectedElements, double falsePositiveRate, long maxBytes) {
+        long elements = Math.max(1, expectedElements);
+        long wantedCounters = (long) Math.ceil(-elements * Math.log(falsePositiveRate) / (LN_2 * LN_2));
+        long counters = Math.max(MIN_COUNTERS, Math.min(wantedCounters, maxBytes * 2));
+        int hashFunctions = (int) Math.max(1, Math.round((double) counters / elements * LN_2));
+        return new CountingBloomFilter(counters, hashFunctions);
+    }
+
+    public void add(long hash) {
+        for (int i = 0; i < hashFunctions; i++) {
+            increment(index(hash, i));
+        }
+    }
+
+    /**
+     * Removes an element that was added before. Nothing is removed if one of its counters is zero,
+     * the element was then never added.
+     *
+     * @return whether the counters were decremented
+     */
+    public boolean remove(long hash) {
+        if (!mightContain(hash)) {
+            return false;
+        }
+        for (int i = 0; i < hashFunctions; i++) {
+            decrement(index(hash, i));
+        }
+        return true;
+    }
+
+    /**
+     * @return false if the element was definitely never added (or removed since), true if it may have been
+     */
+    public boolean mightContain(long hash) {
+        for (int i = 0; i < hashFunctions; i++) {
+            if (count(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the false positive rate expected once the given number of elements were added
+     */
+    public double falsePositiveRate(long elements) {
+        return Math.pow(1 - Math.exp(-(double) hashFunctions * elements / counters), hashFunctions);
+    }
+
+    public long memoryBytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    long counters() {
+        return counters;
+    }
+
+    int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private long index(long hash, int i) {
+        long hash1 = hash & 0xFFFFFFFFL;
+        long hash2 = hash >>> 32;
+        return (hash1 + i * hash2) % counters;
+    }
+
+    private long count(long index) {
+        int shift = shift(index);
+        return (words.get(word(index)) >>> shift) & COUNTER_MASK;
+    }
+
+    private void increment(long index) {
+        int word = word(index);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            if (((current >>> shift) & COUNTER_MASK) == MAX_COUNT
+                    || words.compareAndSet(word, current, current + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private void decrement(long index) {
+        int word = word(index);
+        int shift = shift(index);
+        while (true) {
+            long current = words.get(word);
+            long count = (current >>> shift) & COUNTER_MASK;
+            if (count == 0 || count == MAX_COUNT
+                    || words.compareAndSet(word, current, current - (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int word(long index) {
+        return (int) (index / COUNTERS_PER_WORD);
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * 4;
+    }
+}
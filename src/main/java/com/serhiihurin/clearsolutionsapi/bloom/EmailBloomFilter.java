@@ -0,0 +1,219 @@
+package com.serhiihurin.clearsolutionsapi.bloom;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.event.UserChangeType;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Counting Bloom filter over the user emails, so that lookups of emails that do not exist are answered
+ * without a query. Built from the database at startup and every refresh interval, maintained by the
+ * user change events in between.
+ * <p>
+ * A created email is added before its transaction commits, a removed one is taken out after commit, so
+ * the filter may report an email that is gone but never misses one that exists. Only writes made through
+ * this instance are seen before the next rebuild: with several instances writing, an email created
+ * elsewhere is reported missing until then.
+ * <p>
+ * Emails are matched in lower case, like the case-insensitive column collation. Emails with non-ASCII
+ * characters, which the collation may also match ignoring accents, are always reported as possibly present.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(value = "custom.email-filter.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class EmailBloomFilter {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final Object lock = new Object();
+    private volatile CountingBloomFilter filter;
+    private volatile boolean loaded;
+    private volatile long loadedEmails;
+    //guarded by lock: the filter being rebuilt and the emails added by transactions still running
+    private CountingBloomFilter rebuilding;
+    private final Map<Long, Integer> pendingAdds = new HashMap<>();
+    private Counter rejectionCounter;
+    @Value("${custom.email-filter.expected-emails}")
+    private long EXPECTED_EMAILS;
+    @Value("${custom.email-filter.false-positive-rate}")
+    private double FALSE_POSITIVE_RATE;
+    @Value("${custom.email-filter.max-memory}")
+    private DataSize MAX_MEMORY;
+
+    @PostConstruct
+    void createFilter() {
+        filter = CountingBloomFilter.create(EXPECTED_EMAILS, FALSE_POSITIVE_RATE, MAX_MEMORY.toBytes());
+        rejectionCounter = Counter.builder(MetricsConfig.EMAIL_FILTER_REJECTIONS_COUNTER)
+                .description("Lookups of emails the filter knows do not exist, answered without a query")
+                .register(meterRegistry);
+        Gauge.builder(MetricsConfig.EMAIL_FILTER_FALSE_POSITIVE_RATE_GAUGE, this,
+                        emailFilter -> emailFilter.filter.falsePositiveRate(emailFilter.loadedEmails))
+                .description("Expected false positive rate of the email filter after its last rebuild")
+                .register(meterRegistry);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return false only if no user has the email, true if one may have it or the filter is not loaded yet
+     */
+    public boolean mightContain(String email) {
+        long hash = hash(email);
+        if (!loaded || hash == 0 || filter.mightContain(hash)) {
+            return true;
+        }
+        rejectionCounter.increment();
+        return false;
+    }
+
+    @Scheduled(
+            initialDelayString = "0",
+            fixedDelayString = "${custom.email-filter.refresh-interval}"
+    )
+    public void refresh() {
+        long users = userRepository.count();
+        CountingBloomFilter rebuilt = CountingBloomFilter.create(
+                Math.max(EXPECTED_EMAILS, users * 2), FALSE_POSITIVE_RATE, MAX_MEMORY.toBytes());
+        synchronized (lock) {
+            rebuilding = rebuilt;
+        }
+        long emailCount;
+        try {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            emailCount = readOnlyTransaction.execute(status -> {
+                long count = 0;
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    for (String email : (Iterable<String>) emails::iterator) {
+                        long hash = hash(email);
+                        if (hash != 0) {
+                            rebuilt.add(hash);
+                        }
+                        count++;
+                    }
+                }
+                return count;
+            });
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                rebuilding = null;
+            }
+            throw e;
+        }
+        synchronized (lock) {
+            //a transaction that added before the read and commits after it is not in what was read
+            pendingAdds.keySet().forEach(rebuilt::add);
+            filter = rebuilt;
+            rebuilding = null;
+            loadedEmails = emailCount;
+            loaded = true;
+        }
+        log.debug("Email filter rebuilt: {} emails in {} bytes, expected false positive rate {}",
+                emailCount, rebuilt.memoryBytes(), rebuilt.falsePositiveRate(emailCount));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserWriting(UserChangedEvent event) {
+        long hash = addedHash(event);
+        if (hash == 0) {
+            return;
+        }
+        synchronized (lock) {
+            filter.add(hash);
+            if (rebuilding != null) {
+                rebuilding.add(hash);
+            }
+            pendingAdds.merge(hash, 1, Integer::sum);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onUserWriteCompleted(UserChangedEvent event) {
+        long hash = addedHash(event);
+        if (hash == 0) {
+            return;
+        }
+        synchronized (lock) {
+            pendingAdds.computeIfPresent(hash, (pendingHash, count) -> count == 1 ? null : count - 1);
+            //committed after the rebuild started reading, it may not be in what was read
+            if (rebuilding != null) {
+                rebuilding.add(hash);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getType() != UserChangeType.DELETED && event.getPreviousEmail().equals(event.getEmail())) {
+            return;
+        }
+        long hash = hash(event.getPreviousEmail());
+        if (hash == 0) {
+            return;
+        }
+        //only from the current filter, a rebuild may have read the row before it was removed
+        synchronized (lock) {
+            filter.remove(hash);
+        }
+    }
+
+    private static long addedHash(UserChangedEvent event) {
+        return event.getType() == UserChangeType.CREATED || !event.getPreviousEmail().equals(event.getEmail())
+                ? hash(event.getEmail())
+                : 0;
+    }
+
+    /**
+     * 64-bit FNV-1a of the lower-cased email, finished with the MurmurHash3 mixer so that both halves
+     * are usable as independent hashes.
+     *
+     * @return the hash, or 0 for emails that are not plain ASCII
+     */
+    static long hash(String email) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c > 0x7F) {
+                return 0;
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            hash ^= c;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+}
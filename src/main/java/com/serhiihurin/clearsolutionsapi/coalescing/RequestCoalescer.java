@@ -0,0 +1,95 @@
+package com.serhiihurin.clearsolutionsapi.coalescing;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical reads: while a query for a key is running, callers asking for the
+ * same key wait for its result instead of running their own. The first caller runs the query on its own
+ * thread, the others get the same result object or the same exception. Nothing is kept once the query
+ * finished, a caller arriving afterwards runs a new one.
+ * <p>
+ * A caller that waited longer than the timeout runs the query itself, so one stuck query does not hold
+ * up every identical request behind it. Results are shared between threads and must not be modified.
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestCoalescer {
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<FlightKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    @Value("${custom.coalescing.enabled}")
+    private boolean ENABLED;
+    @Value("${custom.coalescing.timeout}")
+    private Duration TIMEOUT;
+
+    /**
+     * @param operation name of the read, the metrics tag and part of the key
+     * @param key       arguments of the read, compared with equals
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, Object key, Supplier<T> query) {
+        if (!ENABLED) {
+            return query.get();
+        }
+        FlightKey flightKey = new FlightKey(operation, key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> runningFlight = inFlight.putIfAbsent(flightKey, flight);
+        if (runningFlight == null) {
+            try {
+                T result = query.get();
+                flight.complete(result);
+                return result;
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(flightKey, flight);
+            }
+        }
+
+        try {
+            Object result = runningFlight.get(TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+            meterRegistry.counter(MetricsConfig.COALESCED_QUERIES_COUNTER, "operation", operation).increment();
+            return (T) result;
+        } catch (ExecutionException e) {
+            //the failed query was still not repeated
+            meterRegistry.counter(MetricsConfig.COALESCED_QUERIES_COUNTER, "operation", operation).increment();
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            meterRegistry.counter(MetricsConfig.COALESCING_TIMEOUTS_COUNTER, "operation", operation).increment();
+            return query.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while waiting for an identical request", e);
+        }
+    }
+
+    /**
+     * @return the number of callers blocked on the running query for the key, 0 if none is running
+     */
+    int waitingCallers(String operation, Object key) {
+        CompletableFuture<Object> flight = inFlight.get(new FlightKey(operation, key));
+        return flight == null ? 0 : flight.getNumberOfDependents();
+    }
+
+    private record FlightKey(String operation, Object key) {
+    }
+}
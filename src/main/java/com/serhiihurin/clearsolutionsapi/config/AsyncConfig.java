@@ -0,0 +1,13 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * @Async methods run on Spring Boot's applicationTaskExecutor, which uses virtual threads
+ * when spring.threads.virtual.enabled is set (see application-virtual-threads.yaml).
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
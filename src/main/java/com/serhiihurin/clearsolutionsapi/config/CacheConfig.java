@@ -0,0 +1,29 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS_CACHE = "users";
+
+    /**
+     * Bounded Caffeine (W-TinyLFU) cache for single user reads. Evictions issued inside a transaction
+     * are deferred until it commits, so a concurrent read cannot re-cache the pre-commit row.
+     * Hit/miss/eviction statistics are published as cache.* meters on the actuator metrics endpoint.
+     */
+    @Bean
+    public CacheManager cacheManager(@Value("${custom.user-cache.spec}") String userCacheSpec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(USERS_CACHE);
+        caffeineCacheManager.setCaffeineSpec(CaffeineSpec.parse(userCacheSpec));
+        caffeineCacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
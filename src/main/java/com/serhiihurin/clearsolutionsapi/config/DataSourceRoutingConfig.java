@@ -0,0 +1,84 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import com.serhiihurin.clearsolutionsapi.datasource.ReadWriteRoutingDataSource;
+import com.serhiihurin.clearsolutionsapi.datasource.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured datasource with one that routes read-only transactions to the replicas
+ * listed under custom.datasource.replicas. The primary pool is still configured by spring.datasource.
+ */
+@Configuration
+@EnableConfigurationProperties(RoutingDataSourceProperties.class)
+@ConditionalOnProperty(name = "custom.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            RoutingDataSourceProperties routingDataSourceProperties,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (RoutingDataSourceProperties.Replica replica : routingDataSourceProperties.getReplicas()) {
+            HikariDataSource replicaDataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            replicaDataSource.setPoolName("replica-" + replicas.size());
+            replicaDataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            replicaDataSource.setReadOnly(true);
+            meterRegistry.ifAvailable(registry ->
+                    replicaDataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+            replicas.add(replicaDataSource);
+        }
+        return new ReadWriteRoutingDataSource(
+                primaryDataSource,
+                replicas,
+                routingDataSourceProperties.getRouting().getFailoverCooldown()
+        );
+    }
+
+    //with a zero window nobody is pinned to the primary
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            RoutingDataSourceProperties routingDataSourceProperties
+    ) {
+        Duration readYourWritesWindow = routingDataSourceProperties.getRouting().getReadYourWritesWindow();
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(readYourWritesWindow));
+        registration.setEnabled(readYourWritesWindow.isPositive());
+        return registration;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
@@ -0,0 +1,21 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * With spring.main.lazy-initialization the pool, the migrations and the Hibernate bootstrap would
+     * otherwise run inside the first request.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter eagerPersistenceBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class);
+    }
+}
@@ -0,0 +1,32 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    public static final String SERVICE_TIMER = "user.service";
+    public static final String API_ERRORS_COUNTER = "api.errors";
+    public static final String SHED_REQUESTS_COUNTER = "api.requests.shed";
+    public static final String WRITE_CONCURRENCY_LIMIT_GAUGE = "api.write.concurrency.limit";
+    public static final String WRITE_IN_FLIGHT_GAUGE = "api.write.in-flight";
+    public static final String SEARCH_INDEX_SIZE_GAUGE = "user.search.index.size";
+    public static final String SEARCH_INDEX_DRIFT_COUNTER = "user.search.index.drift";
+    public static final String EMAIL_FILTER_REJECTIONS_COUNTER = "user.email-filter.rejections";
+    public static final String EMAIL_FILTER_FALSE_POSITIVE_RATE_GAUGE = "user.email-filter.false-positive-rate";
+    public static final String COALESCED_QUERIES_COUNTER = "user.coalescing.saved-queries";
+    public static final String COALESCING_TIMEOUTS_COUNTER = "user.coalescing.timeouts";
+    public static final String OUTBOX_DISPATCHED_COUNTER = "user.outbox.dispatched";
+    public static final String OUTBOX_DISPATCH_FAILURES_COUNTER = "user.outbox.dispatch.failures";
+
+    /**
+     * Makes @Timed work on service beans. Repository calls, HTTP requests, the Hikari pool,
+     * Hibernate statistics and caches are instrumented by Spring Boot itself.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,21 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+    /**
+     * The R2DBC transaction manager is deliberately not a bean: next to the JPA one it would make
+     * every @Transactional method ambiguous. Reactive code demarcates transactions with this operator.
+     */
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
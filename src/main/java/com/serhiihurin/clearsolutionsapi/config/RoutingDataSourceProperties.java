@@ -0,0 +1,30 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "custom.datasource")
+public class RoutingDataSourceProperties {
+    private Routing routing = new Routing();
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Routing {
+        private boolean enabled;
+        private Duration readYourWritesWindow = Duration.ofSeconds(1);
+        private Duration failoverCooldown = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
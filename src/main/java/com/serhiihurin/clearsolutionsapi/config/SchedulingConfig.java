@@ -0,0 +1,13 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * @Scheduled methods run on Spring Boot's taskScheduler, sized by spring.task.scheduling.pool.size with
+ * one thread per scheduled method: a rebuild taking minutes must not delay the 1s outbox dispatch.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
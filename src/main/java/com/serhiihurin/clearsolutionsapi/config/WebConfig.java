@@ -0,0 +1,71 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import com.serhiihurin.clearsolutionsapi.throttling.AdaptiveConcurrencyLimiter;
+import com.serhiihurin.clearsolutionsapi.throttling.TokenBucketRateLimiter;
+import com.serhiihurin.clearsolutionsapi.throttling.WriteThrottlingInterceptor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Set;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(WriteThrottlingProperties.class)
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+    private final WriteThrottlingProperties writeThrottlingProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Rate limiting and load shedding for the user write endpoints, see WriteThrottlingInterceptor.
+     * Single and bulk writes share the client's rate limit but have separate concurrency limits.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        WriteThrottlingProperties.RateLimit rateLimit = writeThrottlingProperties.getRateLimit();
+        TokenBucketRateLimiter rateLimiter = null;
+        if (rateLimit.isEnabled()) {
+            rateLimiter = new TokenBucketRateLimiter(
+                    rateLimit.getRequestsPerSecond(), rateLimit.getBurst(), rateLimit.getMaxClients());
+        }
+        registry.addInterceptor(new WriteThrottlingInterceptor(
+                        rateLimiter,
+                        concurrencyLimiter(writeThrottlingProperties.getConcurrencyLimit(), "single"),
+                        rateLimit.getClientHeader(),
+                        Set.copyOf(rateLimit.getTrustedProxies()),
+                        meterRegistry))
+                .addPathPatterns("/api/users");
+        registry.addInterceptor(new WriteThrottlingInterceptor(
+                        rateLimiter,
+                        concurrencyLimiter(writeThrottlingProperties.getBulkConcurrencyLimit(), "bulk"),
+                        rateLimit.getClientHeader(),
+                        Set.copyOf(rateLimit.getTrustedProxies()),
+                        meterRegistry))
+                .addPathPatterns("/api/users/bulk", "/api/users/bulk-delete");
+    }
+
+    private AdaptiveConcurrencyLimiter concurrencyLimiter(
+            WriteThrottlingProperties.ConcurrencyLimit concurrencyLimit,
+            String endpoints
+    ) {
+        if (!concurrencyLimit.isEnabled()) {
+            return null;
+        }
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+                concurrencyLimit.getInitialLimit(),
+                concurrencyLimit.getMinLimit(),
+                concurrencyLimit.getMaxLimit(),
+                concurrencyLimit.getTargetLatency().toNanos());
+        Gauge.builder(MetricsConfig.WRITE_CONCURRENCY_LIMIT_GAUGE, concurrencyLimiter,
+                AdaptiveConcurrencyLimiter::getLimit).tag("endpoints", endpoints).register(meterRegistry);
+        Gauge.builder(MetricsConfig.WRITE_IN_FLIGHT_GAUGE, concurrencyLimiter,
+                AdaptiveConcurrencyLimiter::getInFlight).tag("endpoints", endpoints).register(meterRegistry);
+        return concurrencyLimiter;
+    }
+}
@@ -0,0 +1,42 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "custom.write-throttling")
+public class WriteThrottlingProperties {
+    private RateLimit rateLimit = new RateLimit();
+    private ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+    //bulk writes take seconds, they get their own limit so they do not shrink the one of single writes
+    private ConcurrencyLimit bulkConcurrencyLimit = new ConcurrencyLimit(true, 2, 1, 8, Duration.ofSeconds(5));
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        private double requestsPerSecond = 50;
+        private int burst = 100;
+        //clients are told apart by principal or remote address; this header names the client only on requests
+        //forwarded by one of the trusted proxies (exact remote addresses), any client could rotate it otherwise
+        private String clientHeader = "X-Client-Id";
+        private List<String> trustedProxies = new ArrayList<>();
+        private long maxClients = 100_000;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ConcurrencyLimit {
+        private boolean enabled = true;
+        private int initialLimit = 10;
+        private int minLimit = 2;
+        private int maxLimit = 50;
+        private Duration targetLatency = Duration.ofMillis(250);
+    }
+}
@@ -0,0 +1,53 @@
+package com.serhiihurin.clearsolutionsapi.controller;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+
+import java.util.List;
+
+/**
+ * Strong ETags computed from the content of user representations (64-bit FNV-1a over the fields),
+ * so equal bodies get equal tags whichever row version or query produced them.
+ * Spring answers 304 for a matching If-None-Match before the body is serialized.
+ */
+final class ETags {
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    //separates fields and records, so that ("ab", "c") and ("a", "bc") hash differently
+    private static final char SEPARATOR = '\u0000';
+    private static final char NULL_MARKER = '\u0001';
+
+    private ETags() {
+    }
+
+    static String of(UserResponseDTO user) {
+        return format(hash(FNV_OFFSET_BASIS, user));
+    }
+
+    static String of(List<UserResponseDTO> users) {
+        long hash = FNV_OFFSET_BASIS;
+        for (UserResponseDTO user : users) {
+            hash = hash(hash, user);
+        }
+        return format(hash);
+    }
+
+    private static long hash(long hash, UserResponseDTO user) {
+        hash = hash(hash, user.getEmail());
+        hash = hash(hash, user.getFirstName());
+        return hash(hash, user.getLastName());
+    }
+
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            return (hash ^ NULL_MARKER) * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * FNV_PRIME;
+        }
+        return (hash ^ SEPARATOR) * FNV_PRIME;
+    }
+
+    private static String format(long hash) {
+        return '"' + Long.toHexString(hash) + '"';
+    }
+}
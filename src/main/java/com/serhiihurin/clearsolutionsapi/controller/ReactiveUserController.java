@@ -0,0 +1,105 @@
+package com.serhiihurin.clearsolutionsapi.controller;
+
+import com.serhiihurin.clearsolutionsapi.dto.SearchCursor;
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.mapper.UserMapper;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.ReactiveUserService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The user API of {@link UserController} on WebFlux, active with the reactive profile.
+ * Bulk import, bulk lookup/delete, exports, statistics, idempotency keys and write throttling
+ * are only provided by the servlet stack.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+public class ReactiveUserController {
+    private final ReactiveUserService reactiveUserService;
+
+    @GetMapping
+    public Mono<ResponseEntity<UserResponseDTO>> getUser(@RequestParam String email) {
+        return reactiveUserService.getUser(email)
+                .map(UserMapper::toResponse)
+                .map(user -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .eTag(ETags.of(user))
+                        .body(user));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<UserResponseDTO>>> searchUsers(
+            @RequestParam String fromDate,
+            @RequestParam String toDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${custom.search.default-page-size}") int size
+    ) {
+        return reactiveUserService.searchUsersByBirthDate(fromDate, toDate, SearchCursor.decode(cursor), size)
+                .collectList()
+                .map(users -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity
+                            .status(HttpStatus.OK)
+                            .contentType(MediaType.APPLICATION_JSON);
+                    if (users.size() == size) {
+                        UserSummaryDTO lastUser = users.get(users.size() - 1);
+                        response.header(UserController.NEXT_CURSOR_HEADER,
+                                SearchCursor.of(lastUser.getBirthDate(), lastUser.getEmail()).encode());
+                    }
+                    List<UserResponseDTO> responses = UserMapper.toResponses(users);
+                    return response.eTag(ETags.of(responses)).body(responses);
+                });
+    }
+
+    /**
+     * Rows are read from the database as the client consumes the stream, one JSON document per line.
+     */
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserResponseDTO> streamUsersAsNdjson(@RequestParam String fromDate, @RequestParam String toDate) {
+        return reactiveUserService.searchUsersByBirthDate(fromDate, toDate).map(UserMapper::toResponse);
+    }
+
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<UserResponseDTO> streamUsersAsJsonArray(@RequestParam String fromDate, @RequestParam String toDate) {
+        return reactiveUserService.searchUsersByBirthDate(fromDate, toDate).map(UserMapper::toResponse);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<UserResponseDTO>> createUser(@RequestBody UserRequestDTO userRequestDTO) {
+        return reactiveUserService.createUser(userRequestDTO)
+                .map(user -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(UserMapper.toResponse(user)));
+    }
+
+    @PatchMapping
+    public Mono<ResponseEntity<UserResponseDTO>> updateUser(
+            @RequestParam String email,
+            @RequestBody UserRequestDTO userRequestDTO
+    ) {
+        return reactiveUserService.updateUserInfo(email, userRequestDTO)
+                .map(user -> ResponseEntity
+                        .status(HttpStatus.OK)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(UserMapper.toResponse(user)));
+    }
+
+    @DeleteMapping
+    public Mono<ResponseEntity<Void>> deleteUser(@RequestParam String email) {
+        return reactiveUserService.deleteUser(email)
+                .then(Mono.just(ResponseEntity.status(HttpStatus.OK).contentType(MediaType.APPLICATION_JSON).<Void>build()));
+    }
+}
@@ -0,0 +1,41 @@
+package com.serhiihurin.clearsolutionsapi.controller;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserChangeFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Change feed of the users: consumers pass the cursor of the previous response as since and get the
+ * changes made after it, instead of rescanning the users table.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/users/changes")
+@RequiredArgsConstructor
+public class UserChangeFeedController {
+    private final UserChangeFeedService userChangeFeedService;
+
+    @GetMapping
+    public ResponseEntity<List<UserChangeDTO>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "${custom.outbox.feed.default-page-size}") int size
+    ) {
+        List<UserChangeDTO> changes = userChangeFeedService.getChanges(since, size);
+        //an empty page keeps the cursor, the consumer polls again with it later
+        String nextCursor = changes.isEmpty()
+                ? (since == null || since.isBlank() ? "0" : since)
+                : String.valueOf(changes.get(changes.size() - 1).getId());
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(UserController.NEXT_CURSOR_HEADER, nextCursor)
+                .body(changes);
+    }
+}
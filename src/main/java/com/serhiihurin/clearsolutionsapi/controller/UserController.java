@@ -1,75 +1,245 @@
 package com.serhiihurin.clearsolutionsapi.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.serhiihurin.clearsolutionsapi.dto.BulkDeleteReportDTO;
+import com.serhiihurin.clearsolutionsapi.dto.BulkImportReportDTO;
+import com.serhiihurin.clearsolutionsapi.dto.SearchCursor;
 import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
 import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
-import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.idempotency.IdempotencyService;
+import com.serhiihurin.clearsolutionsapi.idempotency.IdempotentResponse;
+import com.serhiihurin.clearsolutionsapi.mapper.UserMapper;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserBatchService;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserImportService;
 import com.serhiihurin.clearsolutionsapi.service.interfaces.UserService;
+import com.serhiihurin.clearsolutionsapi.validation.UserRequestValidator;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/users")
 @RequiredArgsConstructor
 public class UserController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String CREATE_USER_OPERATION = "create-user";
+    private static final String BULK_IMPORT_OPERATION = "bulk-import";
     private final UserService userService;
-    private final ModelMapper modelMapper;
+    private final UserRequestValidator userRequestValidator;
+    private final UserImportService userImportService;
+    private final UserBatchService userBatchService;
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public ResponseEntity<UserResponseDTO> getUser(@RequestParam String email) {
+        //a cached user is served without a database read, and a matching If-None-Match without serialization
+        UserResponseDTO user = UserMapper.toResponse(userService.getUser(email));
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(
-                        modelMapper.map(
-                                userService.getUser(email),
-                                UserResponseDTO.class
-                        )
-                );
+                .eTag(ETags.of(user))
+                .body(user);
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<UserResponseDTO>> searchUsers (
+            @RequestParam String fromDate,
+            @RequestParam String toDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "${custom.search.default-page-size}") int size
+    ) {
+        List<UserSummaryDTO> users = userService.searchUsersByBirthDate(
+                fromDate, toDate, SearchCursor.decode(cursor), size
+        );
+        ResponseEntity.BodyBuilder response = ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (users.size() == size) {
+            UserSummaryDTO lastUser = users.get(users.size() - 1);
+            response.header(NEXT_CURSOR_HEADER, SearchCursor.of(lastUser.getBirthDate(), lastUser.getEmail()).encode());
+        }
+        List<UserResponseDTO> responses = UserMapper.toResponses(users);
+        return response.eTag(ETags.of(responses)).body(responses);
+    }
+
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsersAsNdjson(
             @RequestParam String fromDate,
             @RequestParam String toDate
     ) {
+        ObjectWriter writer = objectMapper.writerFor(UserResponseDTO.class).withRootValueSeparator("\n");
+        LocalDate from = userRequestValidator.parseDate(fromDate);
+        LocalDate to = userRequestValidator.parseDate(toDate);
+        userRequestValidator.validateDateRange(from, to);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> {
+                    try (SequenceWriter sequenceWriter = writer.writeValues(outputStream)) {
+                        streamUsers(from, to, sequenceWriter);
+                    }
+                });
+    }
+
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUsersAsJsonArray(
+            @RequestParam String fromDate,
+            @RequestParam String toDate
+    ) {
+        ObjectWriter writer = objectMapper.writerFor(UserResponseDTO.class);
+        LocalDate from = userRequestValidator.parseDate(fromDate);
+        LocalDate to = userRequestValidator.parseDate(toDate);
+        userRequestValidator.validateDateRange(from, to);
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(
-                        modelMapper.map(
-                                userService.searchUsersByBirthDate(fromDate, toDate),
-                                new TypeToken<List<UserResponseDTO>>(){
-                                }.getType()
-                        )
-                );
+                .body(outputStream -> {
+                    try (SequenceWriter sequenceWriter = writer.writeValuesAsArray(outputStream)) {
+                        streamUsers(from, to, sequenceWriter);
+                    }
+                });
+    }
+
+    //the range is validated before the response is committed, errors in the body could only truncate it
+    private void streamUsers(LocalDate fromDate, LocalDate toDate, SequenceWriter sequenceWriter) {
+        userService.streamUsersByBirthDate(fromDate, toDate, user -> {
+            try {
+                sequenceWriter.write(UserMapper.toResponse(user));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
     }
 
     @PostMapping
-    public ResponseEntity<UserResponseDTO> createUser(@RequestBody UserRequestDTO userRequestDTO) {
+    public ResponseEntity<UserResponseDTO> createUser(
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody UserRequestDTO userRequestDTO
+    ) {
+        if (idempotencyKey == null) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(UserMapper.toResponse(userService.createUser(userRequestDTO)));
+        }
+        IdempotentResponse<UserResponseDTO> user = idempotencyService.execute(
+                idempotencyKey,
+                CREATE_USER_OPERATION,
+                UserResponseDTO.class,
+                () -> UserMapper.toResponse(userService.createUser(userRequestDTO)),
+                () -> fingerprint(userRequestDTO)
+        );
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(
-                modelMapper.map(
-                        userService.createUser(userRequestDTO),
-                        UserResponseDTO.class
-                )
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(user.isReplayed()))
+                .body(user.getResponse());
+    }
+
+    @PostMapping(
+            value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public ResponseEntity<BulkImportReportDTO> importUsers(
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            HttpServletRequest request
+    ) throws IOException {
+        if (idempotencyKey == null) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(importUsers(request.getInputStream()));
+        }
+        //the body is hashed as it streams by, a replay only reads it through to compare the hash
+        MessageDigest digest = IdempotencyService.newDigest();
+        InputStream body = new DigestInputStream(request.getInputStream(), digest);
+        IdempotentResponse<BulkImportReportDTO> report = idempotencyService.execute(
+                idempotencyKey,
+                BULK_IMPORT_OPERATION,
+                BulkImportReportDTO.class,
+                () -> importUsers(body),
+                () -> {
+                    try {
+                        body.transferTo(OutputStream.nullOutputStream());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return IdempotencyService.fingerprint(digest);
+                }
         );
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(IdempotencyService.REPLAYED_HEADER, String.valueOf(report.isReplayed()))
+                .body(report.getResponse());
+    }
+
+    private BulkImportReportDTO importUsers(InputStream body) {
+        //a JSON array and a newline delimited sequence are both read lazily, one record at a time
+        try (MappingIterator<UserRequestDTO> userRequests = objectMapper
+                .readerFor(UserRequestDTO.class)
+                .readValues(body)) {
+            return userImportService.importUsers(userRequests);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String fingerprint(UserRequestDTO userRequestDTO) {
+        try {
+            MessageDigest digest = IdempotencyService.newDigest();
+            digest.update(objectMapper.writeValueAsBytes(userRequestDTO));
+            return IdempotencyService.fingerprint(digest);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<List<UserResponseDTO>> getUsers(@RequestBody List<String> emails) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userBatchService.getUsers(emails));
+    }
+
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkDeleteReportDTO> deleteUsers(@RequestBody List<String> emails) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userBatchService.deleteUsers(emails));
     }
 
     @PatchMapping
-    public ResponseEntity<User> updateUser(@RequestParam String email, @RequestBody UserRequestDTO userRequestDTO) {
+    public ResponseEntity<UserResponseDTO> updateUser(
+            @RequestParam String email,
+            @RequestBody UserRequestDTO userRequestDTO
+    ) {
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(userService.updateUserInfo(email, userRequestDTO));
+                .body(UserMapper.toResponse(userService.updateUserInfo(email, userRequestDTO)));
     }
 
     @DeleteMapping
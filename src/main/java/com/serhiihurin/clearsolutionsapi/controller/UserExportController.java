@@ -0,0 +1,54 @@
+package com.serhiihurin.clearsolutionsapi.controller;
+
+import com.serhiihurin.clearsolutionsapi.dto.ExportJobDTO;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/users/exports")
+@RequiredArgsConstructor
+public class UserExportController {
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+    private final UserExportService userExportService;
+
+    @PostMapping
+    public ResponseEntity<ExportJobDTO> submitExport() {
+        ExportJobDTO exportJob = userExportService.submitExport();
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/users/exports/" + exportJob.getId()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(exportJob);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ExportJobDTO> getExport(@PathVariable String id) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userExportService.getExport(id));
+    }
+
+    @GetMapping("/{id}/file")
+    public ResponseEntity<Resource> downloadExport(@PathVariable String id) {
+        FileSystemResource file = new FileSystemResource(userExportService.getExportFile(id));
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(GZIP)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("users-" + id + ".csv.gz").build().toString())
+                .body(file);
+    }
+}
@@ -0,0 +1,33 @@
+package com.serhiihurin.clearsolutionsapi.controller;
+
+import com.serhiihurin.clearsolutionsapi.dto.HistogramBucketDTO;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/users/statistics")
+@RequiredArgsConstructor
+public class UserStatisticsController {
+    private final UserStatisticsService userStatisticsService;
+
+    @GetMapping("/histogram")
+    public ResponseEntity<List<HistogramBucketDTO>> getBirthDateHistogram(
+            @RequestParam String type,
+            @RequestParam String fromDate,
+            @RequestParam String toDate,
+            @RequestParam(defaultValue = "false") boolean exact
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userStatisticsService.getBirthDateHistogram(type, fromDate, toDate, exact));
+    }
+}
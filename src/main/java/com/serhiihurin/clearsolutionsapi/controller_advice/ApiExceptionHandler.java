@@ -1,35 +1,75 @@
 package com.serhiihurin.clearsolutionsapi.controller_advice;
 
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
 import com.serhiihurin.clearsolutionsapi.dto.ApiExceptionDTO;
 import com.serhiihurin.clearsolutionsapi.exception.ApiException;
+import com.serhiihurin.clearsolutionsapi.throttling.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
 import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Every error is counted, but the WARN logs are rate limited per exception type, so that a flood of bad
+ * requests does not turn into a flood of log lines. The number of warnings left out is added to the next
+ * one logged for the type.
+ */
 @ControllerAdvice
 @RequiredArgsConstructor
 @Slf4j
 public class ApiExceptionHandler {
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final String DATA_INTEGRITY_VIOLATION_MESSAGE = "Data integrity violation, the user may already exist";
+    private static final String OPTIMISTIC_LOCKING_FAILURE_MESSAGE = "The user was modified concurrently, retry the request";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<ErrorType, Counter> errorCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> suppressedWarnings = new ConcurrentHashMap<>();
+    private TokenBucketRateLimiter warningRateLimiter;
+    @Value("${custom.error-log.warnings-per-second}")
+    private double WARNINGS_PER_SECOND;
+    @Value("${custom.error-log.burst}")
+    private int BURST;
+
+    @PostConstruct
+    void createWarningRateLimiter() {
+        //one bucket per exception type, there are only a few of them
+        warningRateLimiter = new TokenBucketRateLimiter(WARNINGS_PER_SECOND, BURST, 1000);
+    }
+
     @ExceptionHandler(value = ApiException.class)
     public ResponseEntity<ApiExceptionDTO> handleApiRequestException(ApiException exception) {
         ApiExceptionDTO apiExceptionDTO = new ApiExceptionDTO(
                 exception.getMessage(),
                 exception.getHttpStatus(),
-                ZonedDateTime.now(ZoneId.of("Z"))
+                ZonedDateTime.now(UTC)
         );
-        log.warn("ApiException caught with HTTP status: {} and message: {}",
-                exception.getHttpStatus(),
-                exception.getMessage());
-        return new ResponseEntity<>(apiExceptionDTO, exception.getHttpStatus());
+        countError(exception, exception.getHttpStatus());
+        warn("ApiException", exception, exception.getHttpStatus(), exception.getMessage());
+        //set explicitly, so the error is also rendered for requests that only accept e.g. NDJSON
+        return ResponseEntity
+                .status(exception.getHttpStatus())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(apiExceptionDTO);
     }
 
     @ExceptionHandler(value = ConstraintViolationException.class)
@@ -41,20 +81,78 @@ public class ApiExceptionHandler {
         ApiExceptionDTO apiExceptionDTO = new ApiExceptionDTO(
                 "Data validation failed: " + messages,
                 HttpStatus.CONFLICT,
-                ZonedDateTime.now(ZoneId.of("Z"))
+                ZonedDateTime.now(UTC)
+        );
+        countError(exception, HttpStatus.CONFLICT);
+        warn("ConstraintViolationException", exception, HttpStatus.CONFLICT, messages);
+        return new ResponseEntity<>(apiExceptionDTO, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(value = DataIntegrityViolationException.class)
+    public ResponseEntity<ApiExceptionDTO> handleDataIntegrityViolationException(
+            DataIntegrityViolationException exception
+    ) {
+        ApiExceptionDTO apiExceptionDTO = new ApiExceptionDTO(
+                DATA_INTEGRITY_VIOLATION_MESSAGE,
+                HttpStatus.CONFLICT,
+                ZonedDateTime.now(UTC)
         );
-        log.warn("ConstraintViolationException caught with HTTP status: {} and message: {}",
+        countError(exception, HttpStatus.CONFLICT);
+        warn("DataIntegrityViolationException", exception, HttpStatus.CONFLICT,
+                exception.getMostSpecificCause().getMessage());
+        return new ResponseEntity<>(apiExceptionDTO, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(value = OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiExceptionDTO> handleOptimisticLockingFailureException(
+            OptimisticLockingFailureException exception
+    ) {
+        ApiExceptionDTO apiExceptionDTO = new ApiExceptionDTO(
+                OPTIMISTIC_LOCKING_FAILURE_MESSAGE,
                 HttpStatus.CONFLICT,
-                messages);
+                ZonedDateTime.now(UTC)
+        );
+        countError(exception, HttpStatus.CONFLICT);
+        warn("OptimisticLockingFailureException", exception, HttpStatus.CONFLICT, exception.getMessage());
         return new ResponseEntity<>(apiExceptionDTO, HttpStatus.CONFLICT);
     }
 
+    private void countError(Exception exception, HttpStatus httpStatus) {
+        errorCounters.computeIfAbsent(new ErrorType(exception.getClass(), httpStatus),
+                        errorType -> meterRegistry.counter(MetricsConfig.API_ERRORS_COUNTER,
+                                "exception", errorType.exceptionClass().getSimpleName(),
+                                "status", String.valueOf(errorType.httpStatus().value())))
+                .increment();
+    }
+
+    private void warn(String caught, Exception exception, HttpStatus httpStatus, Object message) {
+        if (!log.isWarnEnabled()) {
+            return;
+        }
+        String exceptionType = exception.getClass().getName();
+        AtomicLong suppressed = suppressedWarnings.computeIfAbsent(exceptionType, type -> new AtomicLong());
+        if (!warningRateLimiter.tryAcquire(exceptionType)) {
+            suppressed.incrementAndGet();
+            return;
+        }
+        long suppressedCount = suppressed.getAndSet(0);
+        if (suppressedCount == 0) {
+            log.warn("{} caught with HTTP status: {} and message: {}", caught, httpStatus, message);
+        } else {
+            log.warn("{} caught with HTTP status: {} and message: {} ({} similar warnings suppressed)",
+                    caught, httpStatus, message, suppressedCount);
+        }
+    }
+
+    private record ErrorType(Class<?> exceptionClass, HttpStatus httpStatus) {
+    }
+
 //    @ExceptionHandler(value = Exception.class)
 //    public ResponseEntity<ApiExceptionDTO> handleException(Exception exception) {
 //        ApiExceptionDTO apiExceptionDTO = new ApiExceptionDTO(
 //                exception.getMessage(),
 //                HttpStatus.INTERNAL_SERVER_ERROR,
-//                ZonedDateTime.now(ZoneId.of("Z"))
+//                ZonedDateTime.now(UTC)
 //        );
 //        log.warn("Exception caught with HTTP status: {} and message: {}",
 //                HttpStatus.INTERNAL_SERVER_ERROR,
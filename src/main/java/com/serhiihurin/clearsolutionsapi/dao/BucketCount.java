@@ -0,0 +1,9 @@
+package com.serhiihurin.clearsolutionsapi.dao;
+
+/**
+ * Row of a GROUP BY histogram query, mapped from the bucket and users column aliases.
+ */
+public interface BucketCount {
+    int getBucket();
+    long getUsers();
+}
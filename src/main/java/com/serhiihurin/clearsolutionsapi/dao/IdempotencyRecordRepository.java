@@ -0,0 +1,17 @@
+package com.serhiihurin.clearsolutionsapi.dao;
+
+import com.serhiihurin.clearsolutionsapi.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.createdAt < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") Instant createdBefore);
+}
@@ -0,0 +1,56 @@
+package com.serhiihurin.clearsolutionsapi.dao;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO;
+import com.serhiihurin.clearsolutionsapi.entity.UserChangeRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface UserChangeRecordRepository extends JpaRepository<UserChangeRecord, Long> {
+    //not read-only, so that the dispatcher reads the primary rather than a lagging replica
+    @Transactional
+    @Query("""
+            select new com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO(
+                c.id, c.type, c.email, c.previousEmail, c.birthDate, c.previousBirthDate, c.firstName, c.lastName, c.createdAt)
+            from UserChangeRecord c
+            where c.dispatchedAt is null
+            order by c.id""")
+    List<UserChangeDTO> getUndispatchedChanges(Pageable pageable);
+
+    //not read-only, so that it is routed to the primary: the settle time of the feed only bounds the
+    //commit order there, a lagging replica could expose a larger id before a smaller one
+    @Transactional
+    @Query("""
+            select new com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO(
+                c.id, c.type, c.email, c.previousEmail, c.birthDate, c.previousBirthDate, c.firstName, c.lastName, c.createdAt)
+            from UserChangeRecord c
+            where c.id > :since and c.createdAt <= :createdBefore
+            order by c.id""")
+    List<UserChangeDTO> getChangesSince(
+            @Param("since") long since,
+            @Param("createdBefore") Instant createdBefore,
+            Pageable pageable
+    );
+
+    @Transactional
+    @Modifying
+    @Query("update UserChangeRecord c set c.dispatchedAt = :dispatchedAt where c.id in :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedAt") Instant dispatchedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserChangeRecord c where c.createdAt < :createdBefore and c.dispatchedAt is not null")
+    int deleteDispatchedCreatedBefore(@Param("createdBefore") Instant createdBefore);
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserChangeRecord c where c.createdAt < :createdBefore")
+    int deleteCreatedBefore(@Param("createdBefore") Instant createdBefore);
+}
@@ -1,11 +1,166 @@
 package com.serhiihurin.clearsolutionsapi.dao;
 
+import com.serhiihurin.clearsolutionsapi.dto.BirthDateCountDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserExportRowDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
 import com.serhiihurin.clearsolutionsapi.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository <User, String> {
-    List<User> getUsersByBirthDateBetween(LocalDate fromDate, LocalDate toDate);
+    int STREAM_FETCH_SIZE = 1000;
+
+    //read-only here rather than in UserServiceImpl, so that pages served by the BirthDateIndex open no transaction
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO(u.email, u.firstName, u.lastName, u.birthDate)
+            from User u
+            where u.birthDate between :fromDate and :toDate
+            order by u.birthDate, u.email""")
+    List<UserSummaryDTO> getUsersPageByBirthDateBetween(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            Pageable pageable
+    );
+
+    @Transactional(readOnly = true)
+    @Query("""
+            select new com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO(u.email, u.firstName, u.lastName, u.birthDate)
+            from User u
+            where u.birthDate between :fromDate and :toDate
+              and (u.birthDate > :afterBirthDate
+                   or (u.birthDate = :afterBirthDate and u.email > :afterEmail))
+            order by u.birthDate, u.email""")
+    List<UserSummaryDTO> getUsersPageByBirthDateBetweenAfter(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("afterBirthDate") LocalDate afterBirthDate,
+            @Param("afterEmail") String afterEmail,
+            Pageable pageable
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("""
+            select new com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO(u.email, u.firstName, u.lastName, u.birthDate)
+            from User u
+            where u.birthDate between :fromDate and :toDate
+            order by u.birthDate, u.email""")
+    Stream<UserSummaryDTO> streamUsersByBirthDateBetween(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("""
+            select new com.serhiihurin.clearsolutionsapi.dto.UserExportRowDTO(
+                u.email, u.firstName, u.lastName, u.birthDate, u.address, u.phoneNumber)
+            from User u""")
+    Stream<UserExportRowDTO> streamAllUsersForExport();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("""
+            select new com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO(u.email, u.firstName, u.lastName, u.birthDate)
+            from User u
+            order by u.birthDate, u.email""")
+    Stream<UserSummaryDTO> streamAllUserSummaries();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Rewrites the primary key of one user in a single statement, if the row still has the expected version.
+     * Native SQL because it assigns the identifier column, which JPA does not support through the entity.
+     * Clears the persistence context, so entities loaded before the call are detached afterwards.
+     *
+     * @return the number of updated rows, 0 if the user is gone or was changed concurrently
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(
+            value = "update users set email = :newEmail, version = version + 1 where email = :email and version = :version",
+            nativeQuery = true
+    )
+    int changeEmail(
+            @Param("email") String email,
+            @Param("newEmail") String newEmail,
+            @Param("version") long version
+    );
+
+    @Query("""
+            select new com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO(u.email, u.firstName, u.lastName)
+            from User u
+            where u.email in :emails""")
+    List<UserResponseDTO> getUsersByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO(u.email, u.firstName, u.lastName, u.birthDate)
+            from User u
+            where u.email in :emails""")
+    List<UserSummaryDTO> lockUsersByEmailIn(@Param("emails") Collection<String> emails);
+
+    /**
+     * Bulk delete, bypasses the persistence context and the version check.
+     *
+     * @return the number of deleted rows
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.email in :emails")
+    int deleteByEmailIn(@Param("emails") Collection<String> emails);
+
+    @Query(value = """
+            select timestampdiff(YEAR, birth_date, :today) as bucket, count(*) as users
+            from users
+            where birth_date between :fromDate and :toDate
+            group by bucket
+            order by bucket""", nativeQuery = true)
+    List<BucketCount> countUsersByAge(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate,
+            @Param("today") LocalDate today
+    );
+
+    @Query(value = """
+            select year(birth_date) as bucket, count(*) as users
+            from users
+            where birth_date between :fromDate and :toDate
+            group by bucket
+            order by bucket""", nativeQuery = true)
+    List<BucketCount> countUsersByBirthYear(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    @Query(value = """
+            select month(birth_date) as bucket, count(*) as users
+            from users
+            where birth_date between :fromDate and :toDate
+            group by bucket
+            order by bucket""", nativeQuery = true)
+    List<BucketCount> countUsersByBirthMonth(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    @Query("""
+            select new com.serhiihurin.clearsolutionsapi.dto.BirthDateCountDTO(u.birthDate, count(u))
+            from User u
+            group by u.birthDate""")
+    List<BirthDateCountDTO> countUsersByBirthDate();
 }
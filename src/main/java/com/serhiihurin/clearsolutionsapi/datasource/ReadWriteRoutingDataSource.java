@@ -0,0 +1,123 @@
+package com.serhiihurin.clearsolutionsapi.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections of read-only transactions to the replicas (round robin) and everything else to the
+ * primary. A replica that fails to hand out a connection is skipped for the failover cooldown; with no
+ * healthy replica left reads fall back to the primary. A client that committed a write within the
+ * read-your-writes window reads from the primary as well, so it does not read its own writes stale because
+ * of replication lag; the window is tracked per client by {@link ReadYourWrites}.
+ *
+ * <p>Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * the transaction manager asks for a connection before the read-only flag of the transaction is
+ * published, the lazy proxy defers the real lookup to the first statement.
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final long failoverCooldownNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(
+            DataSource primary,
+            List<DataSource> replicas,
+            Duration failoverCooldown
+    ) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.failoverCooldownNanos = failoverCooldown.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return routeToReplica() ? replicaConnection(null, null) : primaryConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return routeToReplica() ? replicaConnection(username, password) : primaryConnection(username, password);
+    }
+
+    private boolean routeToReplica() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return false;
+        }
+        return !ReadYourWrites.isPinnedToPrimary();
+    }
+
+    private Connection primaryConnection(String username, String password) throws SQLException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReadYourWrites.written();
+                }
+            });
+        }
+        return connect(primary, username, password);
+    }
+
+    private Connection replicaConnection(String username, String password) throws SQLException {
+        int replicaCount = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicaCount);
+        for (int i = 0; i < replicaCount; i++) {
+            Replica replica = replicas.get((start + i) % replicaCount);
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            try {
+                return connect(replica.dataSource, username, password);
+            } catch (SQLException e) {
+                replica.markUnhealthy();
+                log.warn("Replica connection failed, skipping it for {} ms: {}",
+                        failoverCooldownNanos / 1_000_000, e.getMessage());
+            }
+        }
+        return connect(primary, username, password);
+    }
+
+    private static Connection connect(DataSource dataSource, String username, String password) throws SQLException {
+        return username == null ? dataSource.getConnection() : dataSource.getConnection(username, password);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private class Replica {
+        private final DataSource dataSource;
+        private volatile long unhealthyUntilNanos;
+        private volatile boolean unhealthy;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private boolean isHealthy() {
+            return !unhealthy || System.nanoTime() - unhealthyUntilNanos >= 0;
+        }
+
+        private void markUnhealthy() {
+            unhealthyUntilNanos = System.nanoTime() + failoverCooldownNanos;
+            unhealthy = true;
+        }
+    }
+}
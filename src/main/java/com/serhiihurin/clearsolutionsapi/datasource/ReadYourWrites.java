@@ -0,0 +1,51 @@
+package com.serhiihurin.clearsolutionsapi.datasource;
+
+/**
+ * Read-your-writes scope of the client served by the current thread, opened per request by
+ * {@link ReadYourWritesFilter}. A client that wrote within the read-your-writes window is pinned to the
+ * primary, other clients keep reading from the replicas. Outside of a scope (scheduled jobs, async
+ * executors) writes pin nobody.
+ */
+public final class ReadYourWrites {
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    /**
+     * @param pinnedToPrimary whether the client wrote within the window before this request
+     * @param onWrite         runs after the first committed write of this request, to hand the client its marker
+     */
+    public static void begin(boolean pinnedToPrimary, Runnable onWrite) {
+        CURRENT.set(new Scope(pinnedToPrimary, onWrite));
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static boolean isPinnedToPrimary() {
+        Scope scope = CURRENT.get();
+        return scope != null && scope.pinnedToPrimary;
+    }
+
+    static void written() {
+        Scope scope = CURRENT.get();
+        if (scope != null && !scope.written) {
+            scope.pinnedToPrimary = true;
+            scope.written = true;
+            scope.onWrite.run();
+        }
+    }
+
+    private static final class Scope {
+        private final Runnable onWrite;
+        private boolean pinnedToPrimary;
+        private boolean written;
+
+        private Scope(boolean pinnedToPrimary, Runnable onWrite) {
+            this.pinnedToPrimary = pinnedToPrimary;
+            this.onWrite = onWrite;
+        }
+    }
+}
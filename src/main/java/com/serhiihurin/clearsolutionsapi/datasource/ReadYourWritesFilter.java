@@ -0,0 +1,78 @@
+package com.serhiihurin.clearsolutionsapi.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Opens the {@link ReadYourWrites} scope of each request. A committed write hands the client a cookie with
+ * the time of the write, lasting the read-your-writes window; while a request carries a recent one, its
+ * reads go to the primary. Clients without cookie support can echo the value in the same-named cookie
+ * header themselves.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String LAST_WRITE_COOKIE = "last-write";
+
+    private final Duration readYourWritesWindow;
+    private final LongSupplier millisClock;
+
+    public ReadYourWritesFilter(Duration readYourWritesWindow) {
+        this(readYourWritesWindow, System::currentTimeMillis);
+    }
+
+    ReadYourWritesFilter(Duration readYourWritesWindow, LongSupplier millisClock) {
+        this.readYourWritesWindow = readYourWritesWindow;
+        this.millisClock = millisClock;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            FilterChain filterChain
+    ) throws ServletException, IOException {
+        ReadYourWrites.begin(wroteRecently(request), () -> markWritten(response));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.end();
+        }
+    }
+
+    private boolean wroteRecently(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    long sinceWriteMillis = millisClock.getAsLong() - Long.parseLong(cookie.getValue());
+                    return sinceWriteMillis >= 0 && sinceWriteMillis <= readYourWritesWindow.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    //transactions commit before the handler writes the body, so the response is normally not committed yet
+    private void markWritten(HttpServletResponse response) {
+        if (response.isCommitted()) {
+            return;
+        }
+        Cookie cookie = new Cookie(LAST_WRITE_COOKIE, String.valueOf(millisClock.getAsLong()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, (readYourWritesWindow.toMillis() + 999) / 1000));
+        response.addCookie(cookie);
+    }
+}
@@ -0,0 +1,14 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Number of users born on one date, the unit of the in-memory birth date summary.
+ */
+@Value
+public class BirthDateCountDTO {
+    LocalDate birthDate;
+    long count;
+}
@@ -0,0 +1,12 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkDeleteReportDTO {
+    private List<String> deleted = new ArrayList<>();
+    private List<String> notFound = new ArrayList<>();
+}
@@ -0,0 +1,12 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BulkImportErrorDTO {
+    private long row;
+    private String email;
+    private String message;
+}
@@ -0,0 +1,14 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkImportReportDTO {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<BulkImportErrorDTO> errors = new ArrayList<>();
+}
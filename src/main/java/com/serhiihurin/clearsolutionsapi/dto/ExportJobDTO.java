@@ -0,0 +1,21 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobDTO {
+    private String id;
+    private ExportJobStatus status;
+    private long exportedRows;
+    //row count taken when the export started, rows written concurrently may make it slightly off
+    private long totalRows;
+    private Instant createdAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -0,0 +1,8 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
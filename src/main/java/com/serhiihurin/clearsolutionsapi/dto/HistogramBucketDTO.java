@@ -0,0 +1,14 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HistogramBucketDTO {
+    //age in full years, birth year or birth month (1-12), depending on the histogram type
+    private int bucket;
+    private long count;
+}
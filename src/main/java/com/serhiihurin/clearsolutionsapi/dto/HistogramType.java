@@ -0,0 +1,24 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+
+public enum HistogramType {
+    AGE("age"),
+    BIRTH_YEAR("birth-year"),
+    MONTH("month");
+
+    private final String parameter;
+
+    HistogramType(String parameter) {
+        this.parameter = parameter;
+    }
+
+    public static HistogramType fromParameter(String parameter) {
+        for (HistogramType type : values()) {
+            if (type.parameter.equals(parameter)) {
+                return type;
+            }
+        }
+        throw new ApiRequestException("Invalid histogram type. Allowed types are age, birth-year and month");
+    }
+}
@@ -0,0 +1,50 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position of the birth date search: the (birthDate, email) pair of the last returned user.
+ * Serialized as an opaque URL-safe token so clients never build it by hand.
+ */
+@Value
+public class SearchCursor {
+    private static final char SEPARATOR = '|';
+
+    LocalDate birthDate;
+    String email;
+
+    public static SearchCursor of(LocalDate birthDate, String email) {
+        return new SearchCursor(birthDate, email);
+    }
+
+    public static SearchCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            if (separatorIndex < 0) {
+                throw new ApiRequestException("Invalid search cursor");
+            }
+            return new SearchCursor(
+                    LocalDate.parse(decoded.substring(0, separatorIndex)),
+                    decoded.substring(separatorIndex + 1)
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ApiRequestException("Invalid search cursor", e);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((birthDate.toString() + SEPARATOR + email).getBytes(StandardCharsets.UTF_8));
+    }
+}
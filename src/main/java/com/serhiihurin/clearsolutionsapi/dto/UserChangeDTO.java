@@ -0,0 +1,28 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import com.serhiihurin.clearsolutionsapi.event.UserChangeType;
+import lombok.Value;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * A user change as handed to the outbox sink and served by the change feed. The id orders the changes
+ * and is the cursor to pass as since to get the changes after it.
+ */
+@Value
+public class UserChangeDTO {
+    long id;
+    UserChangeType type;
+    String email;
+    //same as email unless the email itself was changed
+    String previousEmail;
+    //null for a deleted user
+    LocalDate birthDate;
+    //null for a created user
+    LocalDate previousBirthDate;
+    //null for a deleted user
+    String firstName;
+    String lastName;
+    Instant createdAt;
+}
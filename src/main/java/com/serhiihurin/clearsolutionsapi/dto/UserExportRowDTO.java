@@ -0,0 +1,19 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * All exported columns of a user, selected with a JPQL constructor expression so that streamed rows
+ * never enter the persistence context.
+ */
+@Value
+public class UserExportRowDTO {
+    String email;
+    String firstName;
+    String lastName;
+    LocalDate birthDate;
+    String address;
+    String phoneNumber;
+}
@@ -1,8 +1,12 @@
 package com.serhiihurin.clearsolutionsapi.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class UserResponseDTO {
     private String email;
     private String firstName;
@@ -0,0 +1,17 @@
+package com.serhiihurin.clearsolutionsapi.dto;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection used by the birth date search. Selected with a JPQL constructor expression,
+ * so rows never enter the persistence context and only the listed columns are fetched.
+ */
+@Value
+public class UserSummaryDTO {
+    String email;
+    String firstName;
+    String lastName;
+    LocalDate birthDate;
+}
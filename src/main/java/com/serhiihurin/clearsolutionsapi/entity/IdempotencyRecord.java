@@ -0,0 +1,41 @@
+package com.serhiihurin.clearsolutionsapi.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Stored response of a completed idempotent request, shared by all instances when the database tier
+ * of the idempotency store is enabled. Rows are only ever inserted, then purged after the TTL.
+ */
+@Entity
+@Table(
+        name = "idempotency_records",
+        indexes = @Index(name = "idx_idempotency_records_created_at", columnList = "created_at")
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class IdempotencyRecord implements Persistable<String> {
+    //operation and client supplied key, e.g. create-user:3f2a...
+    @Id
+    private String id;
+    private String fingerprint;
+    @Column(columnDefinition = "mediumtext")
+    private String response;
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
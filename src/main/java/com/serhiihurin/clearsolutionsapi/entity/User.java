@@ -1,25 +1,43 @@
 package com.serhiihurin.clearsolutionsapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "users")
+@DynamicUpdate
+@Table(
+        name = "users",
+        indexes = @Index(name = "idx_users_birth_date_email", columnList = "birth_date, email")
+)
 @NoArgsConstructor
 @AllArgsConstructor
 @Data
 @Builder
-public class User {
+public class User implements Persistable<String> {
     @Id
     @Email(regexp = ".+@.+\\..+", message = "Invalid email format")
     private String email;
@@ -28,7 +46,39 @@ public class User {
     @NotBlank(message = "last name cannot be empty")
     private String lastName;
     @NotNull(message = "birth date cannot be empty")
+    @Column(name = "birth_date")
     private LocalDate birthDate;
     private String address;
     private String phoneNumber;
+    @Version
+    private long version;
+
+    //the email id is assigned by the client, so without this flag every save() of a new user
+    //would be a merge that SELECTs the row first
+    @Transient
+    @JsonIgnore
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEntity = true;
+
+    @Override
+    @JsonIgnore
+    public String getId() {
+        return email;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        newEntity = false;
+    }
 }
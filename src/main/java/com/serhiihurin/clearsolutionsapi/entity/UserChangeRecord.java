@@ -0,0 +1,56 @@
+package com.serhiihurin.clearsolutionsapi.entity;
+
+import com.serhiihurin.clearsolutionsapi.event.UserChangeType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * One row of the user change outbox, see UserChangeOutbox. Rows are inserted with JDBC batches by the
+ * outbox and only read, marked as dispatched and purged through JPA.
+ */
+@Entity
+@Table(
+        name = "user_changes",
+        indexes = {
+                @Index(name = "idx_user_changes_dispatched_at_id", columnList = "dispatched_at, id"),
+                @Index(name = "idx_user_changes_created_at", columnList = "created_at")
+        }
+)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class UserChangeRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    private UserChangeType type;
+    private String email;
+    @Column(name = "previous_email")
+    private String previousEmail;
+    @Column(name = "birth_date")
+    private LocalDate birthDate;
+    @Column(name = "previous_birth_date")
+    private LocalDate previousBirthDate;
+    @Column(name = "first_name")
+    private String firstName;
+    @Column(name = "last_name")
+    private String lastName;
+    @Column(name = "created_at")
+    private Instant createdAt;
+    @Column(name = "dispatched_at")
+    private Instant dispatchedAt;
+}
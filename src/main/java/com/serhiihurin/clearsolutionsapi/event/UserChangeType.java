@@ -0,0 +1,7 @@
+package com.serhiihurin.clearsolutionsapi.event;
+
+public enum UserChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
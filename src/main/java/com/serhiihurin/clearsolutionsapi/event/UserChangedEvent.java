@@ -0,0 +1,39 @@
+package com.serhiihurin.clearsolutionsapi.event;
+
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Published by the user write paths for every created, updated or deleted user, inside the writing
+ * transaction if there is one. Listeners that keep derived in-memory state should listen after commit.
+ */
+@Value
+public class UserChangedEvent {
+    UserChangeType type;
+    String email;
+    //same as email unless the email itself was changed
+    String previousEmail;
+    //null for a deleted user
+    LocalDate birthDate;
+    //null for a created user
+    LocalDate previousBirthDate;
+    //current names, null for a deleted user
+    String firstName;
+    String lastName;
+
+    public static UserChangedEvent created(User user) {
+        return new UserChangedEvent(UserChangeType.CREATED, user.getEmail(), user.getEmail(),
+                user.getBirthDate(), null, user.getFirstName(), user.getLastName());
+    }
+
+    public static UserChangedEvent updated(String previousEmail, LocalDate previousBirthDate, User user) {
+        return new UserChangedEvent(UserChangeType.UPDATED, user.getEmail(), previousEmail,
+                user.getBirthDate(), previousBirthDate, user.getFirstName(), user.getLastName());
+    }
+
+    public static UserChangedEvent deleted(String email, LocalDate birthDate) {
+        return new UserChangedEvent(UserChangeType.DELETED, email, email, null, birthDate, null, null);
+    }
+}
@@ -3,15 +3,23 @@ package com.serhiihurin.clearsolutionsapi.exception;
 import lombok.Getter;
 import org.springframework.http.HttpStatus;
 
+/**
+ * Errors reported to the client, rendered by ApiExceptionHandler from the message and status only. They
+ * are thrown for every bad request, so by default they are created without a stack trace, which would
+ * otherwise be filled through all the servlet and Spring MVC frames and never be printed. The cause, if
+ * any, keeps its own. Start with -Dapi.exceptions.stack-traces=true to record them again.
+ */
 @Getter
 public abstract class ApiException extends RuntimeException{
+    private static final boolean STACK_TRACES = Boolean.getBoolean("api.exceptions.stack-traces");
+
     protected HttpStatus httpStatus;
 
     public ApiException(String message) {
-        super(message);
+        super(message, null, true, STACK_TRACES);
     }
 
     public ApiException(String message, Throwable cause) {
-        super(message, cause);
+        super(message, cause, true, STACK_TRACES);
     }
 }
@@ -0,0 +1,16 @@
+package com.serhiihurin.clearsolutionsapi.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ResourceConflictException extends ApiException{
+    public final HttpStatus httpStatus = HttpStatus.CONFLICT;
+    public ResourceConflictException(String message) {
+        super(message);
+        super.httpStatus = httpStatus;
+    }
+
+    public ResourceConflictException(String message, Throwable cause) {
+        super(message, cause);
+        super.httpStatus = httpStatus;
+    }
+}
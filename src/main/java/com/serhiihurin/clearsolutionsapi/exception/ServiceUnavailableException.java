@@ -0,0 +1,16 @@
+package com.serhiihurin.clearsolutionsapi.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ServiceUnavailableException extends ApiException{
+    public final HttpStatus httpStatus = HttpStatus.SERVICE_UNAVAILABLE;
+    public ServiceUnavailableException(String message) {
+        super(message);
+        super.httpStatus = httpStatus;
+    }
+
+    public ServiceUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+        super.httpStatus = httpStatus;
+    }
+}
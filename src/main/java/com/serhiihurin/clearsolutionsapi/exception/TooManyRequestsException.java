@@ -0,0 +1,16 @@
+package com.serhiihurin.clearsolutionsapi.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class TooManyRequestsException extends ApiException{
+    public final HttpStatus httpStatus = HttpStatus.TOO_MANY_REQUESTS;
+    public TooManyRequestsException(String message) {
+        super(message);
+        super.httpStatus = httpStatus;
+    }
+
+    public TooManyRequestsException(String message, Throwable cause) {
+        super(message, cause);
+        super.httpStatus = httpStatus;
+    }
+}
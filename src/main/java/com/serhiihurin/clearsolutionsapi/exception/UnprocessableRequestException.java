@@ -0,0 +1,16 @@
+package com.serhiihurin.clearsolutionsapi.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class UnprocessableRequestException extends ApiException{
+    public final HttpStatus httpStatus = HttpStatus.UNPROCESSABLE_ENTITY;
+    public UnprocessableRequestException(String message) {
+        super(message);
+        super.httpStatus = httpStatus;
+    }
+
+    public UnprocessableRequestException(String message, Throwable cause) {
+        super(message, cause);
+        super.httpStatus = httpStatus;
+    }
+}
@@ -0,0 +1,178 @@
+package com.serhiihurin.clearsolutionsapi.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.serhiihurin.clearsolutionsapi.dao.IdempotencyRecordRepository;
+import com.serhiihurin.clearsolutionsapi.entity.IdempotencyRecord;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import com.serhiihurin.clearsolutionsapi.exception.ResourceConflictException;
+import com.serhiihurin.clearsolutionsapi.exception.UnprocessableRequestException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per Idempotency-Key and replays its stored response to retries.
+ * Responses are kept in a bounded in-memory map with a TTL and, if the database tier is enabled, also
+ * in the idempotency_records table so that retries landing on another instance or after a restart are
+ * replayed too. A replay served from memory runs no query at all. Only successful responses are
+ * stored; a failed request releases its key, so the retry runs again.
+ *
+ * <p>A key reused with a different request (by fingerprint) is rejected with 422, a retry arriving
+ * while the first request with the key is still running with 409.
+ */
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 200;
+    private static final StoredResponse IN_PROGRESS = new StoredResponse(null, null, null);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private Cache<String, StoredResponse> responses;
+    @Value("${custom.idempotency.ttl}")
+    private Duration TTL;
+    @Value("${custom.idempotency.max-entries}")
+    private long MAX_ENTRIES;
+    @Value("${custom.idempotency.database.enabled}")
+    private boolean DATABASE_ENABLED;
+
+    @PostConstruct
+    void createStore() {
+        responses = Caffeine.newBuilder()
+                .maximumSize(MAX_ENTRIES)
+                .expireAfterWrite(TTL)
+                .build();
+    }
+
+    /**
+     * @param fingerprint evaluated after the action, or instead of it on a replay; identifies the request
+     */
+    public <T> IdempotentResponse<T> execute(
+            String key,
+            String operation,
+            Class<T> responseType,
+            Supplier<T> action,
+            Supplier<String> fingerprint
+    ) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ApiRequestException("Invalid " + IDEMPOTENCY_KEY_HEADER
+                    + ". It should be between 1 and " + MAX_KEY_LENGTH + " characters long");
+        }
+        String id = operation + ":" + key;
+        StoredResponse storedResponse = begin(id);
+        if (storedResponse != null) {
+            if (!Objects.equals(storedResponse.fingerprint(), fingerprint.get())) {
+                throw new UnprocessableRequestException(
+                        IDEMPOTENCY_KEY_HEADER + " " + key + " was already used for a different request");
+            }
+            return new IdempotentResponse<>(read(storedResponse, responseType), true);
+        }
+        boolean stored = false;
+        try {
+            T response = action.get();
+            store(id, fingerprint.get(), response);
+            stored = true;
+            return new IdempotentResponse<>(response, false);
+        } finally {
+            //an Error must release the key too, or retries get 409 until the marker expires
+            if (!stored) {
+                responses.invalidate(id);
+            }
+        }
+    }
+
+    /**
+     * @return the stored response for the key, or null if this request reserved the key and should run
+     */
+    private StoredResponse begin(String id) {
+        StoredResponse storedResponse = responses.asMap().putIfAbsent(id, IN_PROGRESS);
+        if (storedResponse == IN_PROGRESS) {
+            throw new ResourceConflictException("A request with this " + IDEMPOTENCY_KEY_HEADER + " is in progress");
+        }
+        if (storedResponse != null || !DATABASE_ENABLED) {
+            return storedResponse;
+        }
+        Optional<IdempotencyRecord> record;
+        try {
+            record = idempotencyRecordRepository.findById(id)
+                    .filter(found -> found.getCreatedAt().isAfter(Instant.now().minus(TTL)));
+        } catch (Throwable e) {
+            responses.invalidate(id);
+            throw e;
+        }
+        if (record.isEmpty()) {
+            return null;
+        }
+        storedResponse = new StoredResponse(record.get().getFingerprint(), null, record.get().getResponse());
+        responses.put(id, storedResponse);
+        return storedResponse;
+    }
+
+    private void store(String id, String fingerprint, Object response) {
+        responses.put(id, new StoredResponse(fingerprint, response, null));
+        if (!DATABASE_ENABLED) {
+            return;
+        }
+        try {
+            idempotencyRecordRepository.save(
+                    new IdempotencyRecord(id, fingerprint, objectMapper.writeValueAsString(response), Instant.now()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            //the request itself has succeeded, only replays on other instances are lost
+            log.warn("Could not store idempotency record {}: {}", id, e.getMessage());
+        }
+    }
+
+    private <T> T read(StoredResponse storedResponse, Class<T> responseType) {
+        if (storedResponse.response() != null) {
+            return responseType.cast(storedResponse.response());
+        }
+        try {
+            return objectMapper.readValue(storedResponse.json(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable idempotency record", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${custom.idempotency.database.purge-interval}")
+    public void purgeExpiredRecords() {
+        if (DATABASE_ENABLED) {
+            int purged = idempotencyRecordRepository.deleteCreatedBefore(Instant.now().minus(TTL));
+            log.debug("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String fingerprint(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private record StoredResponse(String fingerprint, Object response, String json) {
+    }
+}
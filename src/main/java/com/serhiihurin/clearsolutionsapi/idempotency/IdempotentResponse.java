@@ -0,0 +1,10 @@
+package com.serhiihurin.clearsolutionsapi.idempotency;
+
+import lombok.Value;
+
+@Value
+public class IdempotentResponse<T> {
+    T response;
+    //true if the response was stored by an earlier request with the same key
+    boolean replayed;
+}
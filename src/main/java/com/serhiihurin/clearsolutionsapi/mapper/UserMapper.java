@@ -0,0 +1,49 @@
+package com.serhiihurin.clearsolutionsapi.mapper;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain field-by-field conversions between the user entity, its projections and the API DTOs.
+ * No reflection or type tokens are involved, so mapping costs one allocation per object.
+ */
+public final class UserMapper {
+    private UserMapper() {
+    }
+
+    public static UserResponseDTO toResponse(User user) {
+        return new UserResponseDTO(user.getEmail(), user.getFirstName(), user.getLastName());
+    }
+
+    public static UserResponseDTO toResponse(UserSummaryDTO userSummary) {
+        return new UserResponseDTO(userSummary.getEmail(), userSummary.getFirstName(), userSummary.getLastName());
+    }
+
+    public static List<UserResponseDTO> toResponses(List<UserSummaryDTO> userSummaries) {
+        List<UserResponseDTO> responses = new ArrayList<>(userSummaries.size());
+        for (UserSummaryDTO userSummary : userSummaries) {
+            responses.add(toResponse(userSummary));
+        }
+        return responses;
+    }
+
+    /**
+     * @param birthDate the already validated and parsed {@link UserRequestDTO#getBirthDate()}
+     */
+    public static User toUser(UserRequestDTO userRequestDTO, LocalDate birthDate) {
+        return User.builder()
+                .email(userRequestDTO.getEmail())
+                .firstName(userRequestDTO.getFirstName())
+                .lastName(userRequestDTO.getLastName())
+                .birthDate(birthDate)
+                .address(userRequestDTO.getAddress())
+                .phoneNumber(userRequestDTO.getPhoneNumber())
+                .build();
+    }
+}
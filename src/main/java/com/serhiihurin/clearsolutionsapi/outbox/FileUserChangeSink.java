@@ -0,0 +1,48 @@
+package com.serhiihurin.clearsolutionsapi.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends the dispatched changes to a file as newline-delimited JSON, for local runs.
+ */
+@Component
+@ConditionalOnProperty(value = "custom.outbox.dispatcher.sink", havingValue = "file")
+@RequiredArgsConstructor
+public class FileUserChangeSink implements UserChangeSink {
+    private final ObjectMapper objectMapper;
+    @Value("${custom.outbox.dispatcher.file.path}")
+    private String PATH;
+
+    @Override
+    public synchronized void publish(List<UserChangeDTO> changes) {
+        ObjectWriter writer = objectMapper.writerFor(UserChangeDTO.class);
+        Path path = Path.of(PATH);
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            try (Writer file = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (UserChangeDTO change : changes) {
+                    file.write(writer.writeValueAsString(change));
+                    file.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append user changes to " + PATH, e);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.serhiihurin.clearsolutionsapi.outbox;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+/**
+ * Keeps the last dispatched changes in memory, for local runs and tests.
+ */
+@Component
+@ConditionalOnProperty(value = "custom.outbox.dispatcher.sink", havingValue = "memory")
+public class InMemoryUserChangeSink implements UserChangeSink {
+    private final ArrayDeque<UserChangeDTO> changes = new ArrayDeque<>();
+    @Value("${custom.outbox.dispatcher.memory.capacity}")
+    private int CAPACITY;
+
+    @Override
+    public synchronized void publish(List<UserChangeDTO> changes) {
+        for (UserChangeDTO change : changes) {
+            if (this.changes.size() == CAPACITY) {
+                this.changes.removeFirst();
+            }
+            this.changes.addLast(change);
+        }
+    }
+
+    /**
+     * @return the last published changes, oldest first
+     */
+    public synchronized List<UserChangeDTO> getChanges() {
+        return List.copyOf(changes);
+    }
+}
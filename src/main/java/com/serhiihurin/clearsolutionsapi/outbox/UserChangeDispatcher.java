@@ -0,0 +1,71 @@
+package com.serhiihurin.clearsolutionsapi.outbox;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.dao.UserChangeRecordRepository;
+import com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Drains the user change outbox every flush interval: the undispatched changes are read in id order,
+ * handed to the {@link UserChangeSink} batch by batch and marked as dispatched. A failed batch stops the
+ * run and is retried at the next one, so changes are never handed over out of order. Meant to run on a
+ * single instance, two dispatchers would hand over the same changes.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(value = "custom.outbox.dispatcher.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class UserChangeDispatcher {
+    private final UserChangeRecordRepository userChangeRecordRepository;
+    private final UserChangeSink userChangeSink;
+    private final MeterRegistry meterRegistry;
+    private Counter dispatchedCounter;
+    private Counter failureCounter;
+    @Value("${custom.outbox.dispatcher.batch-size}")
+    private int BATCH_SIZE;
+
+    @PostConstruct
+    void createMeters() {
+        dispatchedCounter = Counter.builder(MetricsConfig.OUTBOX_DISPATCHED_COUNTER)
+                .description("User changes handed to the outbox sink")
+                .register(meterRegistry);
+        failureCounter = Counter.builder(MetricsConfig.OUTBOX_DISPATCH_FAILURES_COUNTER)
+                .description("Batches of user changes the outbox sink failed to publish")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${custom.outbox.dispatcher.flush-interval}")
+    public void dispatch() {
+        List<UserChangeDTO> batch;
+        do {
+            batch = userChangeRecordRepository.getUndispatchedChanges(Pageable.ofSize(BATCH_SIZE));
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                userChangeSink.publish(batch);
+            } catch (RuntimeException e) {
+                failureCounter.increment();
+                log.warn("Publishing {} user changes from id {} failed, retrying at the next flush",
+                        batch.size(), batch.get(0).getId(), e);
+                return;
+            }
+            userChangeRecordRepository.markDispatched(batch.stream().map(UserChangeDTO::getId).toList(), Instant.now());
+            dispatchedCounter.increment(batch.size());
+        } while (batch.size() == BATCH_SIZE);
+    }
+}
@@ -0,0 +1,131 @@
+package com.serhiihurin.clearsolutionsapi.outbox;
+
+import com.serhiihurin.clearsolutionsapi.dao.UserChangeRecordRepository;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Transactional outbox of the user changes: every change published inside a JDBC transaction is appended
+ * to the user_changes table by that transaction, so it is recorded if and only if the change committed.
+ * The changes of a transaction are collected while it runs and inserted with one JDBC batch just before
+ * it commits; through JPA the identity ids would force one INSERT per change.
+ * <p>
+ * Changes published outside of a transaction are not recorded here. The reactive service publishes after
+ * its R2DBC transaction and appends its changes in that transaction itself, with {@link #INSERT_SQL}.
+ */
+@Component
+@Lazy(false)
+@RequiredArgsConstructor
+@Slf4j
+public class UserChangeOutbox {
+    public static final String INSERT_SQL = """
+            insert into user_changes (type, email, previous_email, birth_date, previous_birth_date,
+                first_name, last_name, created_at)
+            values (:type, :email, :previousEmail, :birthDate, :previousBirthDate,
+                :firstName, :lastName, :createdAt)""";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final UserChangeRecordRepository userChangeRecordRepository;
+    @Value("${custom.outbox.retention}")
+    private Duration RETENTION;
+    @Value("${custom.outbox.dispatcher.enabled}")
+    private boolean DISPATCHER_ENABLED;
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        pendingChanges().changes.add(event);
+    }
+
+    /**
+     * Dispatched changes are purged after the retention, undispatched ones only if there is no dispatcher.
+     * Consumers of the change feed must poll more often than the retention.
+     */
+    @Scheduled(fixedDelayString = "${custom.outbox.purge-interval}")
+    public void purgeExpiredChanges() {
+        Instant createdBefore = Instant.now().minus(RETENTION);
+        int purged = DISPATCHER_ENABLED
+                ? userChangeRecordRepository.deleteDispatchedCreatedBefore(createdBefore)
+                : userChangeRecordRepository.deleteCreatedBefore(createdBefore);
+        log.debug("Purged {} expired user changes", purged);
+    }
+
+    /**
+     * created_at is written as UTC wall-clock time, the way Hibernate writes the Instant it is read back as.
+     */
+    public static LocalDateTime createdAt(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    //synchronizations are suspended with their transaction, so a nested transaction gets its own
+    private PendingChanges pendingChanges() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pendingChanges && pendingChanges.outbox() == this) {
+                return pendingChanges;
+            }
+        }
+        PendingChanges pendingChanges = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pendingChanges);
+        return pendingChanges;
+    }
+
+    private void append(List<UserChangedEvent> changes) {
+        LocalDateTime createdAt = createdAt(Instant.now());
+        SqlParameterSource[] rows = new SqlParameterSource[changes.size()];
+        for (int i = 0; i < rows.length; i++) {
+            UserChangedEvent change = changes.get(i);
+            rows[i] = new MapSqlParameterSource()
+                    .addValue("type", change.getType().name())
+                    .addValue("email", change.getEmail())
+                    .addValue("previousEmail", change.getPreviousEmail())
+                    .addValue("birthDate", change.getBirthDate())
+                    .addValue("previousBirthDate", change.getPreviousBirthDate())
+                    .addValue("firstName", change.getFirstName())
+                    .addValue("lastName", change.getLastName())
+                    .addValue("createdAt", createdAt);
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+        private final List<UserChangedEvent> changes = new ArrayList<>();
+
+        private UserChangeOutbox outbox() {
+            return UserChangeOutbox.this;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            //as late as possible, so that the ids are nearly in commit order for the change feed: the pending
+            //user writes are flushed first, so row locks they wait for cannot delay the commit after the ids
+            //are taken
+            if (!changes.isEmpty()) {
+                entityManager.flush();
+                append(changes);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.serhiihurin.clearsolutionsapi.outbox;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO;
+
+import java.util.List;
+
+/**
+ * Destination of the changes drained from the outbox by {@link UserChangeDispatcher}, chosen with
+ * custom.outbox.dispatcher.sink. Another destination (a message broker, a webhook) is plugged in by
+ * defining a bean of this type and setting the property to any other value.
+ * <p>
+ * Changes arrive in id order, at least once: a batch is handed over again if publishing it failed or
+ * it could not be marked as dispatched afterwards. Consumers drop the ids they have already seen.
+ */
+public interface UserChangeSink {
+    /**
+     * @throws RuntimeException if the batch was not published, it is retried at the next flush
+     */
+    void publish(List<UserChangeDTO> changes);
+}
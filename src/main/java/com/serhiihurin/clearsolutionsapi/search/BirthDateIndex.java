@@ -0,0 +1,348 @@
+package com.serhiihurin.clearsolutionsapi.search;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.SearchCursor;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.event.UserChangeType;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory copy of the birth date search columns, so that search pages are served without a query.
+ * Users are kept in a segment of parallel arrays sorted by (birth date as epoch day, email): a page is a
+ * binary search followed by a contiguous slice. Committed writes go to a small sorted map of changes that
+ * is merged into the slice and folded into a new segment once it reaches max-changes.
+ * <p>
+ * The segment is rebuilt from the database every refresh interval. Each rebuild is compared with the
+ * index it replaces, and rows that differ for reasons other than concurrent writes are logged and counted
+ * as drift. Emails are ordered by String.compareTo, which may differ from the column collation for
+ * mixed-case emails; a cursor is only meaningful to the source that issued it.
+ */
+@Component
+@Lazy(false)
+@ConditionalOnProperty(value = "custom.search.index.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BirthDateIndex {
+    private static final Comparator<UserSummaryDTO> USER_ORDER = Comparator
+            .comparing(UserSummaryDTO::getBirthDate)
+            .thenComparing(UserSummaryDTO::getEmail);
+    private static final IndexKey FIRST_KEY = new IndexKey(Integer.MIN_VALUE, "");
+
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    //serializes writers: change events, compaction and the swap of a rebuilt segment
+    private final Object writeLock = new Object();
+    private volatile View view = new View(Segment.EMPTY);
+    private volatile boolean loaded;
+    private long sequence;
+    //no compaction while a rebuild runs, the rebuild needs the changes made after it started reading
+    private boolean refreshing;
+    private Counter driftCounter;
+    @Value("${custom.search.index.max-changes}")
+    private int MAX_CHANGES;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder(MetricsConfig.SEARCH_INDEX_SIZE_GAUGE, this, index -> index.view.segment.size)
+                .description("Users in the sorted segment of the birth date index")
+                .register(meterRegistry);
+        driftCounter = Counter.builder(MetricsConfig.SEARCH_INDEX_DRIFT_COUNTER)
+                .description("Indexed users that did not match the database on rebuild")
+                .register(meterRegistry);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Same page as UserRepository.getUsersPageByBirthDateBetween(After): users born between the dates,
+     * after the cursor if there is one, in (birth date, email) order.
+     */
+    public List<UserSummaryDTO> search(LocalDate fromDate, LocalDate toDate, SearchCursor after, int limit) {
+        IndexKey start = new IndexKey((int) fromDate.toEpochDay(), "");
+        boolean inclusive = true;
+        if (after != null) {
+            IndexKey afterKey = new IndexKey((int) after.getBirthDate().toEpochDay(), after.getEmail());
+            if (afterKey.compareTo(start) >= 0) {
+                start = afterKey;
+                inclusive = false;
+            }
+        }
+        return collect(view, start, inclusive, (int) toDate.toEpochDay(), limit);
+    }
+
+    @Scheduled(
+            initialDelayString = "0",
+            fixedDelayString = "${custom.search.index.refresh-interval}"
+    )
+    public void refresh() {
+        long startSequence;
+        synchronized (writeLock) {
+            startSequence = sequence;
+            refreshing = true;
+        }
+        List<UserSummaryDTO> users;
+        try {
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            users = readOnlyTransaction.execute(status -> {
+                try (Stream<UserSummaryDTO> userStream = userRepository.streamAllUserSummaries()) {
+                    return userStream.collect(Collectors.toCollection(ArrayList::new));
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                refreshing = false;
+            }
+            throw e;
+        }
+        //nearly sorted already, this only fixes rows the column collation orders differently
+        users.sort(USER_ORDER);
+        View previous;
+        View refreshed = new View(Segment.of(users));
+        synchronized (writeLock) {
+            previous = view;
+            //changes applied after the read started may be missing from it, they are carried over
+            previous.changes.forEach((email, change) -> {
+                if (change.sequence() > startSequence) {
+                    UserSummaryDTO user = change.key() == null ? null : previous.writtenUsers.get(change.key());
+                    apply(refreshed, email, user, change.sequence());
+                }
+            });
+            view = refreshed;
+            refreshing = false;
+        }
+        if (loaded) {
+            long drift = countDifferences(previous, refreshed, startSequence);
+            if (drift > 0) {
+                driftCounter.increment(drift);
+                log.warn("Birth date index differed from the database in {} users, rebuilt", drift);
+            }
+        }
+        loaded = true;
+        log.debug("Birth date index rebuilt: {} users", users.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        synchronized (writeLock) {
+            View current = view;
+            long changeSequence = ++sequence;
+            if (!event.getPreviousEmail().equals(event.getEmail())) {
+                apply(current, event.getPreviousEmail(), null, changeSequence);
+            }
+            UserSummaryDTO user = event.getType() == UserChangeType.DELETED
+                    ? null
+                    : new UserSummaryDTO(event.getEmail(), event.getFirstName(), event.getLastName(), event.getBirthDate());
+            apply(current, event.getEmail(), user, changeSequence);
+            if (!refreshing && current.changes.size() >= MAX_CHANGES) {
+                view = new View(Segment.of(collect(current, FIRST_KEY, true, Integer.MAX_VALUE, Integer.MAX_VALUE)));
+            }
+        }
+    }
+
+    /**
+     * Records the current state of one email, null if the user no longer exists. Called under the write lock.
+     */
+    private static void apply(View view, String email, UserSummaryDTO user, long changeSequence) {
+        IndexKey key = user == null ? null : new IndexKey((int) user.getBirthDate().toEpochDay(), email);
+        if (key != null) {
+            view.writtenUsers.put(key, user);
+        }
+        Change previous = view.changes.put(email, new Change(changeSequence, key));
+        if (previous != null && previous.key() != null && !previous.key().equals(key)) {
+            view.writtenUsers.remove(previous.key());
+        }
+    }
+
+    /**
+     * Merges the segment slice, minus rows replaced by later changes, with the written users in the range.
+     */
+    private static List<UserSummaryDTO> collect(View view, IndexKey start, boolean inclusive, int toDay, int limit) {
+        Segment segment = view.segment;
+        Map<String, Change> changes = view.changes;
+        boolean changed = !changes.isEmpty();
+        int position = segment.position(start, inclusive);
+        Iterator<Map.Entry<IndexKey, UserSummaryDTO>> written =
+                view.writtenUsers.tailMap(start, inclusive).entrySet().iterator();
+        Map.Entry<IndexKey, UserSummaryDTO> nextWritten = nextInRange(written, toDay);
+        List<UserSummaryDTO> users = new ArrayList<>(Math.min(limit, 1024));
+        while (users.size() < limit) {
+            while (changed && position < segment.size && segment.birthDays[position] <= toDay
+                    && changes.containsKey(segment.emails[position])) {
+                position++;
+            }
+            boolean segmentHasNext = position < segment.size && segment.birthDays[position] <= toDay;
+            if (!segmentHasNext && nextWritten == null) {
+                break;
+            }
+            if (nextWritten == null || segmentHasNext && segment.compare(position, nextWritten.getKey()) < 0) {
+                users.add(segment.user(position++));
+            } else {
+                users.add(nextWritten.getValue());
+                nextWritten = nextInRange(written, toDay);
+            }
+        }
+        return users;
+    }
+
+    private static Map.Entry<IndexKey, UserSummaryDTO> nextInRange(
+            Iterator<Map.Entry<IndexKey, UserSummaryDTO>> written, int toDay) {
+        if (!written.hasNext()) {
+            return null;
+        }
+        Map.Entry<IndexKey, UserSummaryDTO> entry = written.next();
+        return entry.getKey().birthDay() <= toDay ? entry : null;
+    }
+
+    /**
+     * Users present in only one of the two indexes or with different values, ignoring emails changed
+     * after the rebuild started reading.
+     */
+    private static long countDifferences(View previous, View refreshed, long startSequence) {
+        List<UserSummaryDTO> previousUsers = collect(previous, FIRST_KEY, true, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        List<UserSummaryDTO> refreshedUsers = collect(refreshed, FIRST_KEY, true, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        long differences = 0;
+        int i = 0;
+        int j = 0;
+        while (i < previousUsers.size() || j < refreshedUsers.size()) {
+            UserSummaryDTO previousUser = i < previousUsers.size() ? previousUsers.get(i) : null;
+            UserSummaryDTO refreshedUser = j < refreshedUsers.size() ? refreshedUsers.get(j) : null;
+            int comparison = previousUser == null ? 1 : refreshedUser == null ? -1 : USER_ORDER.compare(previousUser, refreshedUser);
+            UserSummaryDTO user = comparison <= 0 ? previousUser : refreshedUser;
+            if (comparison <= 0) {
+                i++;
+            }
+            if (comparison >= 0) {
+                j++;
+            }
+            if ((comparison != 0 || !previousUser.equals(refreshedUser))
+                    && !changedSince(previous, user.getEmail(), startSequence)
+                    && !changedSince(refreshed, user.getEmail(), startSequence)) {
+                differences++;
+            }
+        }
+        return differences;
+    }
+
+    private static boolean changedSince(View view, String email, long startSequence) {
+        Change change = view.changes.get(email);
+        return change != null && change.sequence() > startSequence;
+    }
+
+    /**
+     * A segment and the changes written on top of it. A new view replaces the whole pair at once.
+     */
+    private static final class View {
+        private final Segment segment;
+        //current users of the changed emails, in segment order
+        private final ConcurrentSkipListMap<IndexKey, UserSummaryDTO> writtenUsers = new ConcurrentSkipListMap<>();
+        //email -> latest change; segment rows of these emails are stale
+        private final ConcurrentHashMap<String, Change> changes = new ConcurrentHashMap<>();
+
+        private View(Segment segment) {
+            this.segment = segment;
+        }
+    }
+
+    private static final class Segment {
+        private static final Segment EMPTY = of(List.of());
+
+        private final int size;
+        private final int[] birthDays;
+        private final String[] emails;
+        private final String[] firstNames;
+        private final String[] lastNames;
+
+        private Segment(int size) {
+            this.size = size;
+            birthDays = new int[size];
+            emails = new String[size];
+            firstNames = new String[size];
+            lastNames = new String[size];
+        }
+
+        /**
+         * @param users sorted by birth date, then email
+         */
+        private static Segment of(List<UserSummaryDTO> users) {
+            Segment segment = new Segment(users.size());
+            for (int i = 0; i < segment.size; i++) {
+                UserSummaryDTO user = users.get(i);
+                segment.birthDays[i] = (int) user.getBirthDate().toEpochDay();
+                segment.emails[i] = user.getEmail();
+                segment.firstNames[i] = user.getFirstName();
+                segment.lastNames[i] = user.getLastName();
+            }
+            return segment;
+        }
+
+        /**
+         * @return the first position after the key, or at or after it when inclusive
+         */
+        private int position(IndexKey key, boolean inclusive) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int comparison = compare(middle, key);
+                if (comparison < 0 || (comparison == 0 && !inclusive)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        private int compare(int position, IndexKey key) {
+            int comparison = Integer.compare(birthDays[position], key.birthDay());
+            return comparison != 0 ? comparison : emails[position].compareTo(key.email());
+        }
+
+        private UserSummaryDTO user(int position) {
+            return new UserSummaryDTO(
+                    emails[position], firstNames[position], lastNames[position], LocalDate.ofEpochDay(birthDays[position]));
+        }
+    }
+
+    private record IndexKey(int birthDay, String email) implements Comparable<IndexKey> {
+        @Override
+        public int compareTo(IndexKey other) {
+            int comparison = Integer.compare(birthDay, other.birthDay);
+            return comparison != 0 ? comparison : email.compareTo(other.email);
+        }
+    }
+
+    //key is null when the email no longer exists
+    private record Change(long sequence, IndexKey key) {
+    }
+}
@@ -0,0 +1,273 @@
+package com.serhiihurin.clearsolutionsapi.service;
+
+import com.serhiihurin.clearsolutionsapi.dto.SearchCursor;
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import com.serhiihurin.clearsolutionsapi.outbox.UserChangeOutbox;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.ReactiveUserService;
+import com.serhiihurin.clearsolutionsapi.validation.UserRequestValidator;
+import io.r2dbc.spi.Readable;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * WebFlux/R2DBC implementation of the user operations, active with the reactive profile. Shares the
+ * request validation, the entity constraints and the DTOs with {@link UserServiceImpl}; the SQL is
+ * written out because the entity mapping belongs to JPA. Searches are emitted row by row as the driver
+ * reads them, so a slow subscriber slows down the reads instead of buffering the result.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveUserServiceImpl implements ReactiveUserService {
+    private static final String SUMMARY_COLUMNS = "select email, first_name, last_name, birth_date from users ";
+    private static final String USER_COLUMNS =
+            "select email, first_name, last_name, birth_date, address, phone_number, version from users ";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final UserRequestValidator userRequestValidator;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    @Value("${custom.search.max-page-size}")
+    private int MAX_PAGE_SIZE;
+
+    @Override
+    public Flux<UserSummaryDTO> searchUsersByBirthDate(String searchFrom, String searchTo) {
+        return Mono.fromCallable(() -> parseSearchRange(searchFrom, searchTo))
+                .flatMapMany(range -> databaseClient.sql(SUMMARY_COLUMNS
+                                + "where birth_date between :fromDate and :toDate order by birth_date, email")
+                        .bind("fromDate", range.fromDate())
+                        .bind("toDate", range.toDate())
+                        .map(ReactiveUserServiceImpl::toSummary)
+                        .all());
+    }
+
+    @Override
+    public Flux<UserSummaryDTO> searchUsersByBirthDate(String searchFrom, String searchTo, SearchCursor after, int limit) {
+        return Mono.fromCallable(() -> {
+                    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                        throw new ApiRequestException("Invalid page size. The size should be between 1 and " + MAX_PAGE_SIZE);
+                    }
+                    return parseSearchRange(searchFrom, searchTo);
+                })
+                .flatMapMany(range -> {
+                    if (after == null) {
+                        return databaseClient.sql(SUMMARY_COLUMNS
+                                        + "where birth_date between :fromDate and :toDate "
+                                        + "order by birth_date, email limit :limit")
+                                .bind("fromDate", range.fromDate())
+                                .bind("toDate", range.toDate())
+                                .bind("limit", limit)
+                                .map(ReactiveUserServiceImpl::toSummary)
+                                .all();
+                    }
+                    return databaseClient.sql(SUMMARY_COLUMNS
+                                    + "where birth_date between :fromDate and :toDate "
+                                    + "and (birth_date > :afterBirthDate or (birth_date = :afterBirthDate and email > :afterEmail)) "
+                                    + "order by birth_date, email limit :limit")
+                            .bind("fromDate", range.fromDate())
+                            .bind("toDate", range.toDate())
+                            .bind("afterBirthDate", after.getBirthDate())
+                            .bind("afterEmail", after.getEmail())
+                            .bind("limit", limit)
+                            .map(ReactiveUserServiceImpl::toSummary)
+                            .all();
+                });
+    }
+
+    @Override
+    public Mono<User> getUser(String email) {
+        return findUser(email, "");
+    }
+
+    @Override
+    public Mono<User> createUser(UserRequestDTO userRequestDTO) {
+        return Mono.fromCallable(() -> validate(userRequestValidator.toNewUser(userRequestDTO)))
+                .flatMap(user -> bindUser(databaseClient.sql("""
+                                insert into users (email, first_name, last_name, birth_date, address, phone_number, version)
+                                values (:email, :firstName, :lastName, :birthDate, :address, :phoneNumber, 0)"""),
+                                user.getEmail(), user)
+                        .fetch()
+                        .rowsUpdated()
+                        .then(appendChange(UserChangedEvent.created(user)))
+                        .map(event -> new UserChange(user, event))
+                        .as(transactionalOperator::transactional))
+                .doOnNext(change -> eventPublisher.publishEvent(change.event()))
+                .map(UserChange::user);
+    }
+
+    /**
+     * Reads the user and writes all changes, including a new email, with one UPDATE guarded by the version.
+     */
+    @Override
+    public Mono<User> updateUserInfo(String email, UserRequestDTO userRequestDTO) {
+        return Mono.fromCallable(() -> Optional.ofNullable(userRequestValidator.validateUpdate(userRequestDTO)))
+                .flatMap(birthDate -> findUser(email, "for update").flatMap(user -> {
+                    //the email column is case-insensitive, the stored email may be spelled differently
+                    String storedEmail = user.getEmail();
+                    LocalDate previousBirthDate = user.getBirthDate();
+                    if (userRequestDTO.getFirstName() != null) {
+                        user.setFirstName(userRequestDTO.getFirstName());
+                    }
+                    if (userRequestDTO.getLastName() != null) {
+                        user.setLastName(userRequestDTO.getLastName());
+                    }
+                    birthDate.ifPresent(user::setBirthDate);
+                    if (userRequestDTO.getAddress() != null) {
+                        user.setAddress(userRequestDTO.getAddress());
+                    }
+                    if (userRequestDTO.getPhoneNumber() != null) {
+                        user.setPhoneNumber(userRequestDTO.getPhoneNumber());
+                    }
+                    String newEmail = userRequestDTO.getEmail();
+                    if (newEmail != null && !newEmail.isBlank()) {
+                        user.setEmail(newEmail);
+                    }
+                    validate(user);
+                    long version = user.getVersion();
+                    return bindUser(databaseClient.sql("""
+                                    update users set email = :newEmail, first_name = :firstName, last_name = :lastName,
+                                        birth_date = :birthDate, address = :address, phone_number = :phoneNumber,
+                                        version = version + 1
+                                    where email = :email and version = :version"""),
+                                    storedEmail, user)
+                            .bind("newEmail", user.getEmail())
+                            .bind("version", version)
+                            .fetch()
+                            .rowsUpdated()
+                            .flatMap(updatedRows -> {
+                                if (updatedRows == 0) {
+                                    return Mono.error(new OptimisticLockingFailureException(
+                                            "User " + email + " was modified concurrently"));
+                                }
+                                user.setVersion(version + 1);
+                                return appendChange(UserChangedEvent.updated(storedEmail, previousBirthDate, user))
+                                        .map(event -> new UserChange(user, event));
+                            });
+                }))
+                .as(transactionalOperator::transactional)
+                .doOnNext(change -> eventPublisher.publishEvent(change.event()))
+                .map(UserChange::user);
+    }
+
+    @Override
+    public Mono<Void> deleteUser(String email) {
+        return findUser(email, "for update")
+                .flatMap(user -> databaseClient.sql("delete from users where email = :email")
+                        .bind("email", user.getEmail())
+                        .fetch()
+                        .rowsUpdated()
+                        //the stored email, the requested one may be spelled differently
+                        .then(appendChange(UserChangedEvent.deleted(user.getEmail(), user.getBirthDate()))))
+                .as(transactionalOperator::transactional)
+                .doOnNext(eventPublisher::publishEvent)
+                .then();
+    }
+
+    //the servlet path is recorded by UserChangeOutbox, these events are only published after the commit
+    private Mono<UserChangedEvent> appendChange(UserChangedEvent event) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(UserChangeOutbox.INSERT_SQL)
+                .bind("type", event.getType().name())
+                .bind("email", event.getEmail())
+                .bind("previousEmail", event.getPreviousEmail())
+                .bind("createdAt", UserChangeOutbox.createdAt(Instant.now()));
+        spec = bindNullable(spec, "birthDate", event.getBirthDate(), LocalDate.class);
+        spec = bindNullable(spec, "previousBirthDate", event.getPreviousBirthDate(), LocalDate.class);
+        spec = bindNullable(spec, "firstName", event.getFirstName(), String.class);
+        spec = bindNullable(spec, "lastName", event.getLastName(), String.class);
+        return spec.fetch()
+                .rowsUpdated()
+                .thenReturn(event);
+    }
+
+    private Mono<User> findUser(String email, String lockClause) {
+        return databaseClient.sql(USER_COLUMNS + "where email = :email " + lockClause)
+                .bind("email", email)
+                .map(ReactiveUserServiceImpl::toUser)
+                .one()
+                .switchIfEmpty(Mono.error(() -> new ApiRequestException("Could not find user with email: " + email)));
+    }
+
+    private SearchRange parseSearchRange(String searchFrom, String searchTo) {
+        LocalDate fromDate = userRequestValidator.parseDate(searchFrom);
+        LocalDate toDate = userRequestValidator.parseDate(searchTo);
+        userRequestValidator.validateDateRange(fromDate, toDate);
+        return new SearchRange(fromDate, toDate);
+    }
+
+    //the JPA path gets these checks from Hibernate Validator on flush
+    private User validate(User user) {
+        Set<ConstraintViolation<User>> violations = validator.validate(user);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        return user;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindUser(DatabaseClient.GenericExecuteSpec spec, String email, User user) {
+        spec = spec.bind("email", email)
+                .bind("firstName", user.getFirstName())
+                .bind("lastName", user.getLastName())
+                .bind("birthDate", user.getBirthDate());
+        spec = user.getAddress() == null
+                ? spec.bindNull("address", String.class)
+                : spec.bind("address", user.getAddress());
+        return user.getPhoneNumber() == null
+                ? spec.bindNull("phoneNumber", String.class)
+                : spec.bind("phoneNumber", user.getPhoneNumber());
+    }
+
+    private static <T> DatabaseClient.GenericExecuteSpec bindNullable(
+            DatabaseClient.GenericExecuteSpec spec, String name, T value, Class<T> type
+    ) {
+        return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+    }
+
+    private static UserSummaryDTO toSummary(Readable row) {
+        return new UserSummaryDTO(
+                row.get("email", String.class),
+                row.get("first_name", String.class),
+                row.get("last_name", String.class),
+                row.get("birth_date", LocalDate.class)
+        );
+    }
+
+    private static User toUser(Readable row) {
+        return User.builder()
+                .email(row.get("email", String.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .birthDate(row.get("birth_date", LocalDate.class))
+                .address(row.get("address", String.class))
+                .phoneNumber(row.get("phone_number", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    private record SearchRange(LocalDate fromDate, LocalDate toDate) {
+    }
+
+    //events are appended to the outbox in the transaction and published once it has committed
+    private record UserChange(User user, UserChangedEvent event) {
+    }
+}
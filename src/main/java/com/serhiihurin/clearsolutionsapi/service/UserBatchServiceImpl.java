@@ -0,0 +1,127 @@
+package com.serhiihurin.clearsolutionsapi.service;
+
+import com.serhiihurin.clearsolutionsapi.config.CacheConfig;
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.BulkDeleteReportDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserBatchService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class UserBatchServiceImpl implements UserBatchService {
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final ApplicationEventPublisher eventPublisher;
+    @Value("${custom.batch.max-emails}")
+    private int MAX_EMAILS;
+    @Value("${custom.batch.chunk-size}")
+    private int CHUNK_SIZE;
+
+    /**
+     * Looks the users up with one IN query per chunk of emails, projected straight into the response.
+     * Unknown emails are left out of the result.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserResponseDTO> getUsers(List<String> emails) {
+        List<UserResponseDTO> users = new ArrayList<>();
+        for (List<String> chunk : chunks(emails)) {
+            users.addAll(userRepository.getUsersByEmailIn(chunk));
+        }
+        return users;
+    }
+
+    /**
+     * Deletes the users with one bulk DELETE per chunk of emails, without loading the entities.
+     * The existing keys of a chunk are selected for update first, so the report stays exact
+     * under concurrent writes even though MySQL cannot return the deleted rows. The email column is
+     * case-insensitive, so deleted users are reported, published and evicted with their stored email.
+     */
+    @Override
+    @Transactional
+    public BulkDeleteReportDTO deleteUsers(List<String> emails) {
+        BulkDeleteReportDTO report = new BulkDeleteReportDTO();
+        Cache usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        for (List<String> chunk : chunks(emails)) {
+            Map<String, UserSummaryDTO> existingUsers = new LinkedHashMap<>();
+            for (UserSummaryDTO user : userRepository.lockUsersByEmailIn(chunk)) {
+                existingUsers.put(emailKey(user.getEmail()), user);
+            }
+            if (!existingUsers.isEmpty()) {
+                userRepository.deleteByEmailIn(existingUsers.values().stream().map(UserSummaryDTO::getEmail).toList());
+            }
+            for (String email : chunk) {
+                UserSummaryDTO deletedUser = existingUsers.remove(emailKey(email));
+                if (deletedUser != null) {
+                    deleted(report, deletedUser, usersCache);
+                    //getUser caches under the requested spelling
+                    if (usersCache != null && !email.equals(deletedUser.getEmail())) {
+                        usersCache.evict(email);
+                    }
+                } else {
+                    report.getNotFound().add(email);
+                }
+            }
+            //matched by the collation beyond ASCII case, e.g. accents
+            for (UserSummaryDTO deletedUser : existingUsers.values()) {
+                deleted(report, deletedUser, usersCache);
+            }
+        }
+        return report;
+    }
+
+    private void deleted(BulkDeleteReportDTO report, UserSummaryDTO user, Cache usersCache) {
+        report.getDeleted().add(user.getEmail());
+        eventPublisher.publishEvent(UserChangedEvent.deleted(user.getEmail(), user.getBirthDate()));
+        //deferred until commit by the transaction aware cache manager
+        if (usersCache != null) {
+            usersCache.evict(user.getEmail());
+        }
+    }
+
+    private List<List<String>> chunks(List<String> emails) {
+        if (emails == null || emails.isEmpty()) {
+            throw new ApiRequestException("The email list cannot be empty");
+        }
+        if (emails.size() > MAX_EMAILS) {
+            throw new ApiRequestException("Too many emails. At most " + MAX_EMAILS + " are allowed per request");
+        }
+        //emails differing only in case name the same user
+        Map<String, String> emailsByKey = new LinkedHashMap<>();
+        for (String email : emails) {
+            if (email == null) {
+                throw new ApiRequestException("The email list cannot contain null");
+            }
+            emailsByKey.putIfAbsent(emailKey(email), email);
+        }
+        List<String> distinctEmails = new ArrayList<>(emailsByKey.values());
+        List<List<String>> chunks = new ArrayList<>(distinctEmails.size() / CHUNK_SIZE + 1);
+        for (int from = 0; from < distinctEmails.size(); from += CHUNK_SIZE) {
+            chunks.add(distinctEmails.subList(from, Math.min(from + CHUNK_SIZE, distinctEmails.size())));
+        }
+        return chunks;
+    }
+
+    private static String emailKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,66 @@
+package com.serhiihurin.clearsolutionsapi.service;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.dao.UserChangeRecordRepository;
+import com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserChangeFeedService;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Pages of the user change outbox after a cursor, the id of the last change the consumer has seen.
+ * <p>
+ * Ids are taken when a transaction appends its changes, after its user writes are flushed and right
+ * before it commits, so transactions committing at the same time may make them visible out of order.
+ * Changes are only served once they are older than the settle time, which must exceed the longest commit
+ * plus the clock skew between the instances: by then every transaction that took a smaller id has
+ * committed or rolled back, and a consumer moving its cursor past an id never misses a smaller one.
+ * Pages are read from the primary, replicas apply commits with a lag of their own.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class UserChangeFeedServiceImpl implements UserChangeFeedService {
+    private final UserChangeRecordRepository userChangeRecordRepository;
+    @Value("${custom.outbox.feed.max-page-size}")
+    private int MAX_PAGE_SIZE;
+    @Value("${custom.outbox.feed.settle-time}")
+    private Duration SETTLE_TIME;
+
+    /**
+     * @param since id of the last change seen, null or blank for the oldest retained changes
+     */
+    @Override
+    public List<UserChangeDTO> getChanges(String since, int limit) {
+        long sinceId = parseCursor(since);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ApiRequestException("Invalid page size. The size should be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return userChangeRecordRepository.getChangesSince(
+                sinceId, Instant.now().minus(SETTLE_TIME), Pageable.ofSize(limit)
+        );
+    }
+
+    private static long parseCursor(String since) {
+        if (since == null || since.isBlank()) {
+            return 0;
+        }
+        try {
+            long sinceId = Long.parseLong(since);
+            if (sinceId < 0) {
+                throw new ApiRequestException("Invalid change feed cursor");
+            }
+            return sinceId;
+        } catch (NumberFormatException e) {
+            throw new ApiRequestException("Invalid change feed cursor");
+        }
+    }
+}
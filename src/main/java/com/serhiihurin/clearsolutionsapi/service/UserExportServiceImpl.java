@@ -0,0 +1,239 @@
+package com.serhiihurin.clearsolutionsapi.service;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.ExportJobDTO;
+import com.serhiihurin.clearsolutionsapi.dto.ExportJobStatus;
+import com.serhiihurin.clearsolutionsapi.dto.UserExportRowDTO;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import com.serhiihurin.clearsolutionsapi.exception.ResourceConflictException;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserExportService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+@Lazy(false)
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Slf4j
+public class UserExportServiceImpl implements UserExportService {
+    static final String CSV_HEADER = "email,firstName,lastName,birthDate,address,phoneNumber";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService exportExecutor;
+    @Value("${custom.export.directory}")
+    private String DIRECTORY;
+    @Value("${custom.export.concurrency}")
+    private int CONCURRENCY;
+    @Value("${custom.export.retention}")
+    private Duration RETENTION;
+
+    @PostConstruct
+    void startExecutor() {
+        exportExecutor = Executors.newFixedThreadPool(CONCURRENCY);
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        exportExecutor.shutdownNow();
+    }
+
+    /**
+     * Queues an export of the whole users table. Jobs run one per export thread and are only accepted
+     * while a thread is free, so nothing waits in the executor queue; otherwise the submit is rejected
+     * with 409. Finished jobs and their files are kept for the retention period.
+     */
+    @Override
+    public synchronized ExportJobDTO submitExport() {
+        purgeExpiredJobs();
+        long unfinishedJobs = jobs.values().stream().filter(job -> job.finishedAt == null).count();
+        if (unfinishedJobs >= CONCURRENCY) {
+            throw new ResourceConflictException("Too many exports in progress, retry when one has finished");
+        }
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), Instant.now());
+        jobs.put(job.id, job);
+        exportExecutor.execute(() -> runExport(job));
+        return job.toDTO();
+    }
+
+    @Override
+    public ExportJobDTO getExport(String id) {
+        return findJob(id).toDTO();
+    }
+
+    @Override
+    public Path getExportFile(String id) {
+        ExportJob job = findJob(id);
+        if (job.status != ExportJobStatus.COMPLETED) {
+            throw new ResourceConflictException("Export " + id + " is not completed, its status is " + job.status);
+        }
+        return job.file;
+    }
+
+    private ExportJob findJob(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ApiRequestException("Could not find export with id: " + id);
+        }
+        return job;
+    }
+
+    void runExport(ExportJob job) {
+        job.status = ExportJobStatus.RUNNING;
+        try {
+            Path directory = Files.createDirectories(Path.of(DIRECTORY));
+            Path partFile = directory.resolve(job.id + ".csv.gz.part");
+            TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+            readOnlyTransaction.setReadOnly(true);
+            readOnlyTransaction.executeWithoutResult(status -> writeCsv(job, partFile));
+            job.file = Files.move(partFile, directory.resolve(job.id + ".csv.gz"), StandardCopyOption.ATOMIC_MOVE);
+            job.status = ExportJobStatus.COMPLETED;
+            log.info("Export {} finished: {} rows", job.id, job.exportedRows);
+        } catch (IOException | RuntimeException e) {
+            job.error = "Export failed";
+            job.status = ExportJobStatus.FAILED;
+            log.error("Export {} failed", job.id, e);
+        } finally {
+            job.finishedAt = Instant.now();
+        }
+    }
+
+    /**
+     * Rows come from a forward-only cursor and go through a fixed size buffer into a gzip stream over
+     * a file channel, so the heap used does not depend on the size of the table.
+     */
+    private void writeCsv(ExportJob job, Path file) {
+        job.totalRows = userRepository.count();
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(
+                     new GZIPOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), StandardCharsets.UTF_8),
+                     BUFFER_SIZE);
+             Stream<UserExportRowDTO> users = userRepository.streamAllUsersForExport()) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+            long exportedRows = 0;
+            for (UserExportRowDTO user : (Iterable<UserExportRowDTO>) users::iterator) {
+                writeField(writer, user.getEmail());
+                writer.write(',');
+                writeField(writer, user.getFirstName());
+                writer.write(',');
+                writeField(writer, user.getLastName());
+                writer.write(',');
+                writeField(writer, user.getBirthDate() == null ? null : user.getBirthDate().toString());
+                writer.write(',');
+                writeField(writer, user.getAddress());
+                writer.write(',');
+                writeField(writer, user.getPhoneNumber());
+                writer.write('\n');
+                if (++exportedRows % PROGRESS_INTERVAL == 0) {
+                    job.exportedRows = exportedRows;
+                }
+            }
+            job.exportedRows = exportedRows;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * RFC 4180 quoting: fields with a comma, quote or line break are quoted and inner quotes doubled.
+     */
+    static void writeField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                writer.write('"');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    @Scheduled(fixedDelayString = "${custom.export.purge-interval}")
+    public void purgeExpiredJobs() {
+        Instant expiredBefore = Instant.now().minus(RETENTION);
+        jobs.values().removeIf(job -> {
+            Instant finishedAt = job.finishedAt;
+            if (finishedAt == null || finishedAt.isAfter(expiredBefore)) {
+                return false;
+            }
+            if (job.file != null) {
+                try {
+                    Files.deleteIfExists(job.file);
+                } catch (IOException e) {
+                    log.warn("Could not delete export file {}", job.file, e);
+                }
+            }
+            return true;
+        });
+    }
+
+    static final class ExportJob {
+        private final String id;
+        private final Instant createdAt;
+        private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+        private volatile long exportedRows;
+        private volatile long totalRows;
+        private volatile Instant finishedAt;
+        private volatile String error;
+        private volatile Path file;
+
+        ExportJob(String id, Instant createdAt) {
+            this.id = id;
+            this.createdAt = createdAt;
+        }
+
+        ExportJobDTO toDTO() {
+            return new ExportJobDTO(id, status, exportedRows, totalRows, createdAt, finishedAt, error);
+        }
+    }
+}
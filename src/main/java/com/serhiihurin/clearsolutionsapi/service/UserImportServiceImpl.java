@@ -0,0 +1,148 @@
+package com.serhiihurin.clearsolutionsapi.service;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.dto.BulkImportErrorDTO;
+import com.serhiihurin.clearsolutionsapi.dto.BulkImportReportDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
+import com.serhiihurin.clearsolutionsapi.exception.ApiException;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserImportService;
+import com.serhiihurin.clearsolutionsapi.validation.UserRequestValidator;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+    private final UserRequestValidator userRequestValidator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    @Value("${custom.bulk-import.chunk-size}")
+    private int CHUNK_SIZE;
+    @Value("${custom.bulk-import.max-reported-errors}")
+    private int MAX_REPORTED_ERRORS;
+
+    /**
+     * Validates every row with the createUser rules and inserts the valid ones in chunks, one transaction
+     * per chunk. A chunk rejected by the database is retried row by row so that only the offending rows
+     * are reported and the rest of the import goes on.
+     */
+    @Override
+    public BulkImportReportDTO importUsers(Iterator<UserRequestDTO> userRequests) {
+        BulkImportReportDTO report = new BulkImportReportDTO();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        Set<String> chunkEmails = new HashSet<>();
+        long row = 0;
+        while (true) {
+            try {
+                if (!userRequests.hasNext()) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                reportError(report, row + 1, null, "Malformed input, import stopped");
+                break;
+            }
+            row++;
+            report.setTotalRows(row);
+            UserRequestDTO userRequestDTO;
+            try {
+                userRequestDTO = userRequests.next();
+            } catch (RuntimeException e) {
+                reportError(report, row, null, "Malformed user record");
+                continue;
+            }
+            User user;
+            try {
+                user = userRequestValidator.toNewUser(userRequestDTO);
+            } catch (ApiException e) {
+                reportError(report, row, userRequestDTO.getEmail(), e.getMessage());
+                continue;
+            } catch (RuntimeException e) {
+                reportError(report, row, userRequestDTO == null ? null : userRequestDTO.getEmail(),
+                        "Incomplete user record");
+                continue;
+            }
+            if (!chunkEmails.add(user.getEmail())) {
+                reportError(report, row, user.getEmail(), "Duplicate email in import");
+                continue;
+            }
+            chunk.add(new ImportRow(row, user));
+            if (chunk.size() == CHUNK_SIZE) {
+                persistChunk(chunk, report);
+                chunk.clear();
+                chunkEmails.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(chunk, report);
+        }
+        log.info("Bulk import finished: {} rows, {} imported, {} failed",
+                report.getTotalRows(), report.getImportedRows(), report.getFailedRows());
+        return report;
+    }
+
+    private void persistChunk(List<ImportRow> chunk, BulkImportReportDTO report) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(chunk));
+            report.setImportedRows(report.getImportedRows() + chunk.size());
+        } catch (RuntimeException chunkException) {
+            for (ImportRow importRow : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(importRow)));
+                    report.setImportedRows(report.getImportedRows() + 1);
+                } catch (RuntimeException rowException) {
+                    reportError(report, importRow.row(), importRow.user().getEmail(), describe(rowException));
+                }
+            }
+        }
+    }
+
+    private void insert(List<ImportRow> rows) {
+        //persist rather than save(): a retried row must fail on a taken email instead of merging over it
+        for (ImportRow importRow : rows) {
+            entityManager.persist(importRow.user());
+            //delivered to after-commit listeners only if the chunk commits
+            eventPublisher.publishEvent(UserChangedEvent.created(importRow.user()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private String describe(RuntimeException exception) {
+        if (exception instanceof ConstraintViolationException constraintViolationException) {
+            return "Data validation failed: " + constraintViolationException.getConstraintViolations()
+                    .stream()
+                    .map(ConstraintViolation::getMessageTemplate)
+                    .toList();
+        }
+        return "Could not save user, the email may already be taken";
+    }
+
+    private void reportError(BulkImportReportDTO report, long row, String email, String message) {
+        report.setFailedRows(report.getFailedRows() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new BulkImportErrorDTO(row, email, message));
+        }
+    }
+
+    private record ImportRow(long row, User user) {
+    }
+}
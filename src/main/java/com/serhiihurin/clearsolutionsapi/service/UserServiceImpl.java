@@ -1,119 +1,211 @@
 package com.serhiihurin.clearsolutionsapi.service;
 
+import com.serhiihurin.clearsolutionsapi.bloom.EmailBloomFilter;
+import com.serhiihurin.clearsolutionsapi.coalescing.RequestCoalescer;
+import com.serhiihurin.clearsolutionsapi.config.CacheConfig;
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
 import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.SearchCursor;
 import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
 import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
 import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
-import com.serhiihurin.clearsolutionsapi.exception.UnsatisfiedAgeException;
+import com.serhiihurin.clearsolutionsapi.search.BirthDateIndex;
 import com.serhiihurin.clearsolutionsapi.service.interfaces.UserService;
+import com.serhiihurin.clearsolutionsapi.validation.UserRequestValidator;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
-import java.time.Period;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
-    @Value("${custom.minimal-allowed-age}")
-    private int MINIMAL_ALLOWED_AGE;
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    private final String DATE_PATTERN = "\\d{4}-\\d{2}-\\d{2}";
-    private final String PHONE_NUMBER_PATTERN = "\\+\\d{10,}";
+    private final UserRequestValidator userRequestValidator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RequestCoalescer requestCoalescer;
+    private final ObjectProvider<BirthDateIndex> birthDateIndex;
+    private final ObjectProvider<EmailBloomFilter> emailBloomFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    @Value("${custom.search.max-page-size}")
+    private int MAX_PAGE_SIZE;
 
+    /**
+     * Served from the in-memory birth date index when it is enabled and loaded, otherwise by a keyset query
+     * shared by concurrent identical requests.
+     */
     @Override
-    public List<User> searchUsersByBirthDate(String searchFrom, String searchTo) {
-        if(!searchFrom.matches(DATE_PATTERN) || !searchTo.matches(DATE_PATTERN)) {
-            throw new ApiRequestException("Invalid date format. The format should be yyyy-MM-dd");
+    public List<UserSummaryDTO> searchUsersByBirthDate(String searchFrom, String searchTo, SearchCursor after, int limit) {
+        LocalDate fromDate = userRequestValidator.parseDate(searchFrom);
+        LocalDate toDate = userRequestValidator.parseDate(searchTo);
+        userRequestValidator.validateDateRange(fromDate, toDate);
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new ApiRequestException("Invalid page size. The size should be between 1 and " + MAX_PAGE_SIZE);
         }
-        LocalDate fromDate = LocalDate.parse(searchFrom, formatter);
-        LocalDate toDate = LocalDate.parse(searchTo, formatter);
-        if (!fromDate.isAfter(toDate)) {
-            return userRepository.getUsersByBirthDateBetween(fromDate, toDate);
-        } else {
-            throw new ApiRequestException("Invalid request parameters of date");
+        BirthDateIndex index = birthDateIndex.getIfAvailable();
+        if (index != null && index.isLoaded()) {
+            return index.search(fromDate, toDate, after, limit);
         }
+        return requestCoalescer.execute("search-page", new SearchPageKey(fromDate, toDate, after, limit),
+                () -> findUsersPage(fromDate, toDate, after, limit));
     }
 
+    private List<UserSummaryDTO> findUsersPage(LocalDate fromDate, LocalDate toDate, SearchCursor after, int limit) {
+        Pageable page = Pageable.ofSize(limit);
+        if (after == null) {
+            return userRepository.getUsersPageByBirthDateBetween(fromDate, toDate, page);
+        }
+        return userRepository.getUsersPageByBirthDateBetweenAfter(
+                fromDate, toDate, after.getBirthDate(), after.getEmail(), page
+        );
+    }
+
+    /**
+     * The range is validated by the caller, before a streamed response is committed.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamUsersByBirthDate(LocalDate fromDate, LocalDate toDate, Consumer<UserSummaryDTO> consumer) {
+        try (Stream<UserSummaryDTO> users = userRepository.streamUsersByBirthDateBetween(fromDate, toDate)) {
+            users.forEach(consumer);
+        }
+    }
+
+    /**
+     * No transaction of its own: findById runs in a read-only one, which a definite miss of the email
+     * filter never opens. Concurrent cache misses for the same email share one findById.
+     */
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#email")
     public User getUser(String email) {
-        return userRepository.findById(email)
-                .orElseThrow(() -> new ApiRequestException("Could not find user with email: " + email));
+        checkEmailMayExist(email);
+        return requestCoalescer.execute("get", email, () -> userRepository.findById(email))
+                .orElseThrow(() -> userNotFound(email));
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#userRequestDTO.email",
+            condition = "#userRequestDTO.email != null")
+    @Transactional
     public User createUser(UserRequestDTO userRequestDTO) {
-        if (userRequestDTO.getPhoneNumber() != null && !userRequestDTO.getPhoneNumber().isBlank()
-                && !userRequestDTO.getPhoneNumber().matches(PHONE_NUMBER_PATTERN)) {
-            throw new ApiRequestException("Invalid phone number");
-        }
-        if (!userRequestDTO.getBirthDate().matches(DATE_PATTERN)) {
-            throw new ApiRequestException("Invalid date format. The format should be yyyy-MM-dd");
-        }
-        LocalDate birthDate = LocalDate.parse(userRequestDTO.getBirthDate(), formatter);
-        LocalDate currentDate = LocalDate.now();
-        int userAge = Period.between(birthDate, currentDate).getYears();
-
-        if (userAge < 0) {
-            throw new UnsatisfiedAgeException("birth date cannot be later than current date");
-        } else if (userAge < MINIMAL_ALLOWED_AGE) {
-            throw new UnsatisfiedAgeException("User age is less than 18");
-        } else {
-            return userRepository.save(
-                    User.builder()
-                            .email(userRequestDTO.getEmail())
-                            .firstName(userRequestDTO.getFirstName())
-                            .lastName(userRequestDTO.getLastName())
-                            .birthDate(birthDate)
-                            .address(userRequestDTO.getAddress())
-                            .phoneNumber(userRequestDTO.getPhoneNumber())
-                            .build()
-            );
-        }
+        User user = userRequestValidator.toNewUser(userRequestDTO);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.created(user));
+        return savedUser;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#email"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#userRequestDTO.email",
+                    condition = "#userRequestDTO.email != null && !#userRequestDTO.email.isBlank()")
+    })
     public User updateUserInfo(String email, UserRequestDTO userRequestDTO) {
+        LocalDate birthDate = userRequestValidator.validateUpdate(userRequestDTO);
+        checkEmailMayExist(email);
+        return transactionTemplate.execute(status -> updateUser(email, userRequestDTO, birthDate));
+    }
+
+    private User updateUser(String email, UserRequestDTO userRequestDTO, LocalDate birthDate) {
         User user = userRepository.findById(email)
-                .orElseThrow(() -> new ApiRequestException("Could not find user with email: " + email));
+                .orElseThrow(() -> userNotFound(email));
+        //the email column is case-insensitive, the stored email may be spelled differently
+        String storedEmail = user.getEmail();
+        LocalDate previousBirthDate = user.getBirthDate();
         if (userRequestDTO.getFirstName() != null) {
             user.setFirstName(userRequestDTO.getFirstName());
         }
         if (userRequestDTO.getLastName() != null) {
             user.setLastName(userRequestDTO.getLastName());
         }
-        if (userRequestDTO.getBirthDate() != null) {
-            if (!userRequestDTO.getBirthDate().matches(DATE_PATTERN)) {
-                throw new ApiRequestException("Invalid date format. The format should be yyyy-MM-dd");
-            }
-            user.setBirthDate(LocalDate.parse(userRequestDTO.getBirthDate(), formatter));
+        if (birthDate != null) {
+            user.setBirthDate(birthDate);
         }
         if (userRequestDTO.getAddress() != null) {
             user.setAddress(userRequestDTO.getAddress());
         }
         if (userRequestDTO.getPhoneNumber() != null) {
-            if (!userRequestDTO.getPhoneNumber().isBlank()
-                    && !userRequestDTO.getPhoneNumber().matches(PHONE_NUMBER_PATTERN)) {
-                throw new ApiRequestException("Invalid phone number");
-            }
             user.setPhoneNumber(userRequestDTO.getPhoneNumber());
         }
-        if (userRequestDTO.getEmail() != null && !userRequestDTO.getEmail().isBlank()) {
-            userRepository.deleteById(email);
-            user.setEmail(userRequestDTO.getEmail());
+        //the user is managed: dirty checking writes only the changed columns (see @DynamicUpdate on User)
+        //at commit, without the merge a save() would do, and skips the UPDATE if nothing changed
+        String newEmail = userRequestDTO.getEmail();
+        if (newEmail == null || newEmail.isBlank() || newEmail.equals(storedEmail)) {
+            eventPublisher.publishEvent(UserChangedEvent.updated(storedEmail, previousBirthDate, user));
+            evictStoredEmail(email, storedEmail);
+            return user;
         }
 
-        return userRepository.save(user);
+        //the primary key is rewritten in place by one UPDATE guarded by the version,
+        //after the other changed columns have been flushed (and version-checked) in the same transaction
+        userRepository.flush();
+        long version = user.getVersion();
+        if (userRepository.changeEmail(storedEmail, newEmail, version) == 0) {
+            throw new ObjectOptimisticLockingFailureException(User.class, storedEmail);
+        }
+        user.setEmail(newEmail);
+        user.setVersion(version + 1);
+        eventPublisher.publishEvent(UserChangedEvent.updated(storedEmail, previousBirthDate, user));
+        evictStoredEmail(email, storedEmail);
+        return user;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS_CACHE, key = "#email")
     public void deleteUser(String email) {
-        User userForDeletion = userRepository.findById(email)
-                .orElseThrow(() -> new ApiRequestException("Could not find user with email: " + email));
-        userRepository.delete(userForDeletion);
+        checkEmailMayExist(email);
+        transactionTemplate.executeWithoutResult(status -> {
+            User userForDeletion = userRepository.findById(email)
+                    .orElseThrow(() -> userNotFound(email));
+            userRepository.delete(userForDeletion);
+            //the email column is case-insensitive, the stored email may be spelled differently
+            String storedEmail = userForDeletion.getEmail();
+            eventPublisher.publishEvent(UserChangedEvent.deleted(storedEmail, userForDeletion.getBirthDate()));
+            evictStoredEmail(email, storedEmail);
+        });
+    }
+
+    //the requested spelling is evicted by @CacheEvict, getUser may have cached the stored one as well
+    private void evictStoredEmail(String email, String storedEmail) {
+        Cache usersCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        if (usersCache != null && !storedEmail.equals(email)) {
+            usersCache.evict(storedEmail);
+        }
+    }
+
+    //update and delete check the email filter before their transaction begins, so a definite miss
+    //takes no connection
+    private void checkEmailMayExist(String email) {
+        EmailBloomFilter filter = emailBloomFilter.getIfAvailable();
+        if (filter != null && !filter.mightContain(email)) {
+            throw userNotFound(email);
+        }
+    }
+
+    private record SearchPageKey(LocalDate fromDate, LocalDate toDate, SearchCursor after, int limit) {
+    }
+
+    private static ApiRequestException userNotFound(String email) {
+        return new ApiRequestException("Could not find user with email: " + email);
     }
 }
@@ -0,0 +1,54 @@
+package com.serhiihurin.clearsolutionsapi.service;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.dao.BucketCount;
+import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.HistogramBucketDTO;
+import com.serhiihurin.clearsolutionsapi.dto.HistogramType;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserStatisticsService;
+import com.serhiihurin.clearsolutionsapi.statistics.BirthDateSummary;
+import com.serhiihurin.clearsolutionsapi.validation.UserRequestValidator;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
+public class UserStatisticsServiceImpl implements UserStatisticsService {
+    private final UserRepository userRepository;
+    private final UserRequestValidator userRequestValidator;
+    private final ObjectProvider<BirthDateSummary> birthDateSummary;
+
+    /**
+     * Served from the in-memory birth date summary when it is enabled and loaded, unless an exact
+     * result is requested; otherwise computed by a GROUP BY query.
+     */
+    @Override
+    public List<HistogramBucketDTO> getBirthDateHistogram(String type, String searchFrom, String searchTo, boolean exact) {
+        HistogramType histogramType = HistogramType.fromParameter(type);
+        LocalDate fromDate = userRequestValidator.parseDate(searchFrom);
+        LocalDate toDate = userRequestValidator.parseDate(searchTo);
+        userRequestValidator.validateDateRange(fromDate, toDate);
+        LocalDate today = LocalDate.now();
+        BirthDateSummary summary = birthDateSummary.getIfAvailable();
+        if (!exact && summary != null && summary.isLoaded()) {
+            return summary.histogram(histogramType, fromDate, toDate, today);
+        }
+        List<BucketCount> bucketCounts = switch (histogramType) {
+            case AGE -> userRepository.countUsersByAge(fromDate, toDate, today);
+            case BIRTH_YEAR -> userRepository.countUsersByBirthYear(fromDate, toDate);
+            case MONTH -> userRepository.countUsersByBirthMonth(fromDate, toDate);
+        };
+        List<HistogramBucketDTO> histogram = new ArrayList<>(bucketCounts.size());
+        for (BucketCount bucketCount : bucketCounts) {
+            histogram.add(new HistogramBucketDTO(bucketCount.getBucket(), bucketCount.getUsers()));
+        }
+        return histogram;
+    }
+}
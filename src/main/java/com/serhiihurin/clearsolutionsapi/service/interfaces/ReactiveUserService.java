@@ -0,0 +1,20 @@
+package com.serhiihurin.clearsolutionsapi.service.interfaces;
+
+import com.serhiihurin.clearsolutionsapi.dto.SearchCursor;
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link UserService}, same rules and error types.
+ */
+public interface ReactiveUserService {
+    Flux<UserSummaryDTO> searchUsersByBirthDate(String fromDate, String toDate);
+    Flux<UserSummaryDTO> searchUsersByBirthDate(String fromDate, String toDate, SearchCursor after, int limit);
+    Mono<User> getUser(String email);
+    Mono<User> createUser(UserRequestDTO userRequestDTO);
+    Mono<User> updateUserInfo(String email, UserRequestDTO userRequestDTO);
+    Mono<Void> deleteUser(String email);
+}
@@ -0,0 +1,11 @@
+package com.serhiihurin.clearsolutionsapi.service.interfaces;
+
+import com.serhiihurin.clearsolutionsapi.dto.BulkDeleteReportDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+
+import java.util.List;
+
+public interface UserBatchService {
+    List<UserResponseDTO> getUsers(List<String> emails);
+    BulkDeleteReportDTO deleteUsers(List<String> emails);
+}
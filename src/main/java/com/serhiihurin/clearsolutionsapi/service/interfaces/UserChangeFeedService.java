@@ -0,0 +1,9 @@
+package com.serhiihurin.clearsolutionsapi.service.interfaces;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO;
+
+import java.util.List;
+
+public interface UserChangeFeedService {
+    List<UserChangeDTO> getChanges(String since, int limit);
+}
@@ -0,0 +1,11 @@
+package com.serhiihurin.clearsolutionsapi.service.interfaces;
+
+import com.serhiihurin.clearsolutionsapi.dto.ExportJobDTO;
+
+import java.nio.file.Path;
+
+public interface UserExportService {
+    ExportJobDTO submitExport();
+    ExportJobDTO getExport(String id);
+    Path getExportFile(String id);
+}
@@ -0,0 +1,10 @@
+package com.serhiihurin.clearsolutionsapi.service.interfaces;
+
+import com.serhiihurin.clearsolutionsapi.dto.BulkImportReportDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+
+import java.util.Iterator;
+
+public interface UserImportService {
+    BulkImportReportDTO importUsers(Iterator<UserRequestDTO> userRequests);
+}
@@ -1,12 +1,17 @@
 package com.serhiihurin.clearsolutionsapi.service.interfaces;
 
+import com.serhiihurin.clearsolutionsapi.dto.SearchCursor;
 import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
 import com.serhiihurin.clearsolutionsapi.entity.User;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface UserService {
-    List<User> searchUsersByBirthDate(String fromDate, String toDate);
+    List<UserSummaryDTO> searchUsersByBirthDate(String fromDate, String toDate, SearchCursor after, int limit);
+    void streamUsersByBirthDate(LocalDate fromDate, LocalDate toDate, Consumer<UserSummaryDTO> consumer);
     User getUser(String email);
     User createUser(UserRequestDTO userRequestDTO);
     User updateUserInfo(String email, UserRequestDTO userRequestDTO);
@@ -0,0 +1,9 @@
+package com.serhiihurin.clearsolutionsapi.service.interfaces;
+
+import com.serhiihurin.clearsolutionsapi.dto.HistogramBucketDTO;
+
+import java.util.List;
+
+public interface UserStatisticsService {
+    List<HistogramBucketDTO> getBirthDateHistogram(String type, String fromDate, String toDate, boolean exact);
+}
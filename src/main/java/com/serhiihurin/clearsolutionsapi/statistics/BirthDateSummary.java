@@ -0,0 +1,124 @@
+package com.serhiihurin.clearsolutionsapi.statistics;
+
+import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.BirthDateCountDTO;
+import com.serhiihurin.clearsolutionsapi.dto.HistogramBucketDTO;
+import com.serhiihurin.clearsolutionsapi.dto.HistogramType;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
+import com.serhiihurin.clearsolutionsapi.validation.UserRequestValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Number of users per birth date, held in memory so that histograms are computed from at most one entry
+ * per distinct date instead of scanning the users table. Rebuilt from the database every refresh
+ * interval and adjusted by committed user changes in between. Changes committed while a rebuild is
+ * reading are replayed onto what it read; one committed just before the query took its snapshot is
+ * counted twice until the next rebuild.
+ */
+@Component
+//created at startup even with lazy-init, its @Scheduled method is only registered on creation
+@Lazy(false)
+@ConditionalOnProperty(value = "custom.user-statistics.summary.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BirthDateSummary {
+    private final UserRepository userRepository;
+    private final Object lock = new Object();
+    //epoch day -> users born on that day
+    private volatile ConcurrentNavigableMap<Long, AtomicLong> counts = new ConcurrentSkipListMap<>();
+    private volatile boolean loaded;
+    //guarded by lock: epoch day -> change in users committed since the running refresh started
+    private Map<Long, Long> refreshDeltas;
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @Scheduled(
+            initialDelayString = "0",
+            fixedDelayString = "${custom.user-statistics.summary.refresh-interval}"
+    )
+    public void refresh() {
+        synchronized (lock) {
+            refreshDeltas = new HashMap<>();
+        }
+        List<BirthDateCountDTO> birthDateCounts;
+        try {
+            birthDateCounts = userRepository.countUsersByBirthDate();
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                refreshDeltas = null;
+            }
+            throw e;
+        }
+        ConcurrentNavigableMap<Long, AtomicLong> refreshedCounts = new ConcurrentSkipListMap<>();
+        for (BirthDateCountDTO birthDateCount : birthDateCounts) {
+            refreshedCounts.put(birthDateCount.getBirthDate().toEpochDay(), new AtomicLong(birthDateCount.getCount()));
+        }
+        synchronized (lock) {
+            refreshDeltas.forEach((epochDay, delta) ->
+                    refreshedCounts.computeIfAbsent(epochDay, day -> new AtomicLong()).addAndGet(delta));
+            counts = refreshedCounts;
+            refreshDeltas = null;
+            loaded = true;
+        }
+        log.debug("Birth date summary refreshed: {} distinct dates", refreshedCounts.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getPreviousBirthDate() != null) {
+            add(event.getPreviousBirthDate(), -1);
+        }
+        if (event.getBirthDate() != null) {
+            add(event.getBirthDate(), 1);
+        }
+    }
+
+    private void add(LocalDate birthDate, long delta) {
+        long epochDay = birthDate.toEpochDay();
+        synchronized (lock) {
+            counts.computeIfAbsent(epochDay, day -> new AtomicLong()).addAndGet(delta);
+            if (refreshDeltas != null) {
+                refreshDeltas.merge(epochDay, delta, Long::sum);
+            }
+        }
+    }
+
+    public List<HistogramBucketDTO> histogram(HistogramType type, LocalDate fromDate, LocalDate toDate, LocalDate today) {
+        Map<Integer, Long> buckets = new TreeMap<>();
+        for (Map.Entry<Long, AtomicLong> entry : counts.subMap(fromDate.toEpochDay(), true, toDate.toEpochDay(), true)
+                .entrySet()) {
+            long count = entry.getValue().get();
+            if (count <= 0) {
+                continue;
+            }
+            LocalDate birthDate = LocalDate.ofEpochDay(entry.getKey());
+            int bucket = switch (type) {
+                case AGE -> UserRequestValidator.ageAt(birthDate, today);
+                case BIRTH_YEAR -> birthDate.getYear();
+                case MONTH -> birthDate.getMonthValue();
+            };
+            buckets.merge(bucket, count, Long::sum);
+        }
+        List<HistogramBucketDTO> histogram = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, count) -> histogram.add(new HistogramBucketDTO(bucket, count)));
+        return histogram;
+    }
+}
@@ -0,0 +1,85 @@
+package com.serhiihurin.clearsolutionsapi.throttling;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps the number of requests in flight with a limit adjusted by their latency (AIMD): every limit
+ * requests completed within the target latency raise the limit by one, a slower one cuts it by 10%.
+ * A burst of slow requests cuts it once: requests admitted before the last cut ran under the old limit
+ * and say nothing about the new one. When the database slows down, requests are rejected instead of
+ * queueing for pool connections.
+ */
+public class AdaptiveConcurrencyLimiter {
+    private static final double DECREASE_FACTOR = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger fastCompletions = new AtomicInteger();
+    private final LongSupplier nanoClock;
+    //guarded by this
+    private boolean decreased;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos) {
+        this(initialLimit, minLimit, maxLimit, targetLatencyNanos, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimiter(
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            long targetLatencyNanos,
+            LongSupplier nanoClock
+    ) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.nanoClock = nanoClock;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > targetLatencyNanos) {
+            fastCompletions.set(0);
+            long now = nanoClock.getAsLong();
+            decrease(now - latencyNanos, now);
+        } else if (fastCompletions.incrementAndGet() >= limit.get()) {
+            fastCompletions.set(0);
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+
+    private synchronized void decrease(long admittedAtNanos, long now) {
+        if (decreased && admittedAtNanos - lastDecreaseNanos < 0) {
+            return;
+        }
+        decreased = true;
+        lastDecreaseNanos = now;
+        limit.updateAndGet(current -> Math.max(minLimit, (int) (current * DECREASE_FACTOR)));
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,51 @@
+package com.serhiihurin.clearsolutionsapi.throttling;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client, implemented as the equivalent generic cell rate algorithm: the whole bucket
+ * state is one "theoretical arrival time" in an AtomicLong updated by compare-and-set, so acquiring
+ * never locks. A client may send up to burst requests at once and then one per emission interval.
+ * Buckets of idle clients are dropped once they would be full again, at most maxClients are tracked.
+ */
+public class TokenBucketRateLimiter {
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(double requestsPerSecond, int burst, long maxClients) {
+        this(requestsPerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double requestsPerSecond, int burst, long maxClients, LongSupplier nanoClock) {
+        this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(burstToleranceNanos + emissionIntervalNanos))
+                .build();
+    }
+
+    public boolean tryAcquire(String client) {
+        long now = nanoClock.getAsLong();
+        AtomicLong theoreticalArrival = buckets.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = arrival - now > 0 ? arrival : now;
+            if (start - now > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+}
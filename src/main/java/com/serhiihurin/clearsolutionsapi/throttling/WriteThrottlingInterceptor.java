@@ -0,0 +1,100 @@
+package com.serhiihurin.clearsolutionsapi.throttling;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.exception.ServiceUnavailableException;
+import com.serhiihurin.clearsolutionsapi.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.security.Principal;
+import java.util.Set;
+
+/**
+ * Sheds write requests before they reach a controller: over the client's rate with 429, over the
+ * adaptive concurrency limit with 503. Both are rendered as ApiExceptionDTO by ApiExceptionHandler.
+ * Either limiter may be null when disabled. Reads are never throttled here.
+ */
+public class WriteThrottlingInterceptor implements HandlerInterceptor {
+    private static final String START_ATTRIBUTE = WriteThrottlingInterceptor.class.getName() + ".start";
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final String clientHeader;
+    private final Set<String> trustedProxies;
+    private final Counter rateLimitedRequests;
+    private final Counter concurrencyLimitedRequests;
+
+    public WriteThrottlingInterceptor(
+            TokenBucketRateLimiter rateLimiter,
+            AdaptiveConcurrencyLimiter concurrencyLimiter,
+            String clientHeader,
+            Set<String> trustedProxies,
+            MeterRegistry meterRegistry
+    ) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.clientHeader = clientHeader;
+        this.trustedProxies = trustedProxies;
+        this.rateLimitedRequests = meterRegistry.counter(MetricsConfig.SHED_REQUESTS_COUNTER, "reason", "rate-limit");
+        this.concurrencyLimitedRequests = meterRegistry.counter(
+                MetricsConfig.SHED_REQUESTS_COUNTER, "reason", "concurrency-limit");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!isWrite(request.getMethod())) {
+            return true;
+        }
+        if (rateLimiter != null && !rateLimiter.tryAcquire(clientId(request))) {
+            rateLimitedRequests.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            throw new TooManyRequestsException("Too many write requests, retry later");
+        }
+        if (concurrencyLimiter != null) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                concurrencyLimitedRequests.increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+                throw new ServiceUnavailableException("The service is overloaded, retry later");
+            }
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(START_ATTRIBUTE) instanceof Long start) {
+            request.removeAttribute(START_ATTRIBUTE);
+            concurrencyLimiter.release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * The authenticated principal, else the client header when the request comes from a trusted proxy,
+     * else the remote address. A client choosing its own id could get a fresh bucket per request and
+     * evict the buckets of others.
+     */
+    String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+        String remoteAddress = request.getRemoteAddr();
+        if (trustedProxies.contains(remoteAddress)) {
+            String clientId = request.getHeader(clientHeader);
+            if (clientId != null && !clientId.isBlank()) {
+                return "header:" + clientId;
+            }
+        }
+        return remoteAddress;
+    }
+
+    private static boolean isWrite(String method) {
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+}
@@ -0,0 +1,243 @@
+package com.serhiihurin.clearsolutionsapi.validation;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import com.serhiihurin.clearsolutionsapi.exception.UnsatisfiedAgeException;
+import com.serhiihurin.clearsolutionsapi.mapper.UserMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request-level rules shared by the single and bulk user write paths and by the birth date search.
+ * Dates (yyyy-MM-dd) and phone numbers (+ followed by at least 10 digits) are checked and parsed in a single
+ * pass over the characters, without regular expressions or formatters. All field errors of a request,
+ * including the age, are reported together in one exception; an age that is the only error keeps its
+ * own 403 response.
+ */
+@Component
+public class UserRequestValidator {
+    public static final String INVALID_DATE_MESSAGE = "Invalid date format. The format should be yyyy-MM-dd";
+    public static final String INVALID_PHONE_NUMBER_MESSAGE = "Invalid phone number";
+    public static final String EMPTY_BIRTH_DATE_MESSAGE = "birth date cannot be empty";
+    public static final String INVALID_EMAIL_MESSAGE = "Invalid email format";
+    public static final String EMPTY_FIRST_NAME_MESSAGE = "first name cannot be empty";
+    public static final String EMPTY_LAST_NAME_MESSAGE = "last name cannot be empty";
+    public static final String INVALID_DATE_RANGE_MESSAGE = "Invalid request parameters of date";
+    private static final String ERROR_SEPARATOR = "; ";
+    private static final int DATE_LENGTH = 10;
+    private static final int MIN_PHONE_NUMBER_DIGITS = 10;
+
+    @Value("${custom.minimal-allowed-age}")
+    private int MINIMAL_ALLOWED_AGE;
+
+    public User toNewUser(UserRequestDTO userRequestDTO) {
+        List<String> errors = null;
+        String email = userRequestDTO.getEmail();
+        if (email == null || !isValidEmail(email)) {
+            errors = addError(errors, INVALID_EMAIL_MESSAGE);
+        }
+        if (isBlank(userRequestDTO.getFirstName())) {
+            errors = addError(errors, EMPTY_FIRST_NAME_MESSAGE);
+        }
+        if (isBlank(userRequestDTO.getLastName())) {
+            errors = addError(errors, EMPTY_LAST_NAME_MESSAGE);
+        }
+        if (!isValidPhoneNumber(userRequestDTO.getPhoneNumber())) {
+            errors = addError(errors, INVALID_PHONE_NUMBER_MESSAGE);
+        }
+        LocalDate birthDate = null;
+        if (userRequestDTO.getBirthDate() == null) {
+            errors = addError(errors, EMPTY_BIRTH_DATE_MESSAGE);
+        } else {
+            birthDate = tryParseDate(userRequestDTO.getBirthDate());
+            if (birthDate == null) {
+                errors = addError(errors, INVALID_DATE_MESSAGE);
+            }
+        }
+        throwIfInvalid(errors, birthDate == null ? null : ageError(birthDate));
+        return UserMapper.toUser(userRequestDTO, birthDate);
+    }
+
+    /**
+     * Checks the fields present in a partial update.
+     *
+     * @return the parsed birth date, or null if the update does not change it
+     */
+    public LocalDate validateUpdate(UserRequestDTO userRequestDTO) {
+        List<String> errors = null;
+        //an absent name is left unchanged, a blank one would fail the entity's @NotBlank at commit
+        if (userRequestDTO.getFirstName() != null && userRequestDTO.getFirstName().isBlank()) {
+            errors = addError(errors, EMPTY_FIRST_NAME_MESSAGE);
+        }
+        if (userRequestDTO.getLastName() != null && userRequestDTO.getLastName().isBlank()) {
+            errors = addError(errors, EMPTY_LAST_NAME_MESSAGE);
+        }
+        LocalDate birthDate = null;
+        if (userRequestDTO.getBirthDate() != null) {
+            birthDate = tryParseDate(userRequestDTO.getBirthDate());
+            if (birthDate == null) {
+                errors = addError(errors, INVALID_DATE_MESSAGE);
+            }
+        }
+        if (!isValidPhoneNumber(userRequestDTO.getPhoneNumber())) {
+            errors = addError(errors, INVALID_PHONE_NUMBER_MESSAGE);
+        }
+        //a new email is written by a native UPDATE, so the entity's @Email constraint does not run for it
+        String email = userRequestDTO.getEmail();
+        if (email != null && !email.isBlank() && !isValidEmail(email)) {
+            errors = addError(errors, INVALID_EMAIL_MESSAGE);
+        }
+        throwIfInvalid(errors, birthDate == null ? null : ageError(birthDate));
+        return birthDate;
+    }
+
+    public LocalDate parseDate(String date) {
+        LocalDate parsedDate = tryParseDate(date);
+        if (parsedDate == null) {
+            throw new ApiRequestException(INVALID_DATE_MESSAGE);
+        }
+        return parsedDate;
+    }
+
+    public void validateDateRange(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate.isAfter(toDate)) {
+            throw new ApiRequestException(INVALID_DATE_RANGE_MESSAGE);
+        }
+    }
+
+    /**
+     * @return the date, or null if the value is not a valid yyyy-MM-dd calendar date
+     */
+    public LocalDate tryParseDate(String date) {
+        if (date == null || date.length() != DATE_LENGTH || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return null;
+        }
+        int year = parseDigits(date, 0, 4);
+        int month = parseDigits(date, 5, 7);
+        int day = parseDigits(date, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A missing or blank phone number is allowed, the field is optional.
+     */
+    public boolean isValidPhoneNumber(String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.isBlank()) {
+            return true;
+        }
+        int length = phoneNumber.length();
+        if (phoneNumber.charAt(0) != '+' || length - 1 < MIN_PHONE_NUMBER_DIGITS) {
+            return false;
+        }
+        for (int i = 1; i < length; i++) {
+            if (!isDigit(phoneNumber.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same rule as the @Email(regexp = ".+@.+\\..+") constraint of the User entity: any @ after the first
+     * character, followed by a dot with at least one character on each side. The first such @ and the last
+     * dot before the final character leave the most room. Like . in the pattern, no character may be a line terminator.
+     */
+    public boolean isValidEmail(String email) {
+        int at = email.indexOf('@', 1);
+        int lastDot = email.lastIndexOf('.', email.length() - 2);
+        if (at < 0 || lastDot <= at + 1) {
+            return false;
+        }
+        for (int i = 0; i < email.length(); i++) {
+            if (isLineTerminator(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * @return the reason the birth date is not allowed, or null if it is
+     */
+    private String ageError(LocalDate birthDate) {
+        LocalDate currentDate = LocalDate.now();
+        if (birthDate.isAfter(currentDate)) {
+            return "birth date cannot be later than current date";
+        }
+        if (ageAt(birthDate, currentDate) < MINIMAL_ALLOWED_AGE) {
+            return "User age is less than " + MINIMAL_ALLOWED_AGE;
+        }
+        return null;
+    }
+
+    /**
+     * @return the age in full years on the given date
+     */
+    public static int ageAt(LocalDate birthDate, LocalDate date) {
+        int age = date.getYear() - birthDate.getYear();
+        if (date.getMonthValue() < birthDate.getMonthValue()
+                || (date.getMonthValue() == birthDate.getMonthValue()
+                && date.getDayOfMonth() < birthDate.getDayOfMonth())) {
+            age--;
+        }
+        return age;
+    }
+
+    private static int parseDigits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static List<String> addError(List<String> errors, String error) {
+        if (errors == null) {
+            errors = new ArrayList<>(2);
+        }
+        errors.add(error);
+        return errors;
+    }
+
+    private static void throwIfInvalid(List<String> errors, String ageError) {
+        if (errors == null) {
+            if (ageError != null) {
+                throw new UnsatisfiedAgeException(ageError);
+            }
+            return;
+        }
+        if (ageError != null) {
+            errors.add(ageError);
+        }
+        throw new ApiRequestException(String.join(ERROR_SEPARATOR, errors));
+    }
+}
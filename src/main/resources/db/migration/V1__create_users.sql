@@ -0,0 +1,11 @@
+-- Schema previously generated by hibernate.ddl-auto: update from the original User entity;
+-- databases created that way are baselined at this version, see spring.flyway in application.yaml
+create table users (
+    email varchar(255) not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    birth_date date not null,
+    address varchar(255),
+    phone_number varchar(255),
+    primary key (email)
+);
@@ -0,0 +1,15 @@
+-- optimistic locking of User, existing rows start at version 0
+alter table users add column version bigint not null default 0;
+
+-- keyset search by birth date, see UserRepository
+create index idx_users_birth_date_email on users (birth_date, email);
+
+create table idempotency_records (
+    id varchar(255) not null,
+    fingerprint varchar(255),
+    response mediumtext,
+    created_at datetime(6),
+    primary key (id)
+);
+
+create index idx_idempotency_records_created_at on idempotency_records (created_at);
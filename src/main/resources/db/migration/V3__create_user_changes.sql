@@ -0,0 +1,20 @@
+-- transactional outbox of user changes, appended by UserChangeOutbox in the writing transaction;
+-- the auto-increment id is the cursor of the change feed
+create table user_changes (
+    id bigint not null auto_increment,
+    type varchar(16) not null,
+    email varchar(255) not null,
+    previous_email varchar(255) not null,
+    birth_date date,
+    previous_birth_date date,
+    first_name varchar(255),
+    last_name varchar(255),
+    created_at datetime(6) not null,
+    dispatched_at datetime(6),
+    primary key (id)
+);
+
+-- undispatched changes in id order, see UserChangeDispatcher
+create index idx_user_changes_dispatched_at_id on user_changes (dispatched_at, id);
+
+create index idx_user_changes_created_at on user_changes (created_at);
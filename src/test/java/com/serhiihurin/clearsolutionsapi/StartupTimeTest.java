@@ -0,0 +1,70 @@
+package com.serhiihurin.clearsolutionsapi;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Starts the whole application against an in-memory H2 database (MySQL mode), checks that all migrations
+ * applied and logs the startup time with its slowest steps. Wall-clock time depends on the machine, so a
+ * budget is only enforced when one is given, e.g. -Dstartup.max-duration=PT15S on a dedicated runner.
+ */
+@Slf4j
+class StartupTimeTest {
+    private static final String MAX_STARTUP_DURATION = System.getProperty("startup.max-duration");
+    private static final int REPORTED_STEPS = 10;
+
+    @Test
+    void applicationStarts_ReportsStartupTimeline() {
+        BufferingApplicationStartup applicationStartup = new BufferingApplicationStartup(10000);
+        long startedAt = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ClearsolutionsapiApplication.class)
+                .applicationStartup(applicationStartup)
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password="
+                )) {
+            Duration startupDuration = Duration.ofNanos(System.nanoTime() - startedAt);
+
+            String slowestSteps = slowestSteps(applicationStartup.getBufferedTimeline());
+            log.info("Startup took {} ms. Slowest steps:\n{}", startupDuration.toMillis(), slowestSteps);
+
+            assertEquals(0, context.getBean(Flyway.class).info().pending().length);
+            if (MAX_STARTUP_DURATION != null) {
+                Duration maxStartupDuration = Duration.parse(MAX_STARTUP_DURATION);
+                assertTrue(startupDuration.compareTo(maxStartupDuration) <= 0,
+                        () -> "Startup took " + startupDuration.toMillis() + " ms, the budget is "
+                                + maxStartupDuration.toMillis() + " ms. Slowest steps:\n" + slowestSteps);
+            }
+        }
+    }
+
+    private static String slowestSteps(StartupTimeline timeline) {
+        return timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(REPORTED_STEPS)
+                .map(event -> event.getDuration().toMillis() + " ms " + describe(event.getStartupStep()))
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static String describe(StartupStep step) {
+        return step.getName() + StreamSupport.stream(step.getTags().spliterator(), false)
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(", ", " [", "]"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.serhiihurin.clearsolutionsapi.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingBloomFilterTest {
+    private static final int ELEMENTS = 10000;
+
+    @Test
+    public void mightContain_NoFalseNegatives() {
+        CountingBloomFilter filter = CountingBloomFilter.create(ELEMENTS, 0.01, 1 << 20);
+        for (int i = 0; i < ELEMENTS; i++) {
+            filter.add(EmailBloomFilter.hash("user" + i + "@mail.com"));
+        }
+
+        for (int i = 0; i < ELEMENTS; i++) {
+            assertTrue(filter.mightContain(EmailBloomFilter.hash("user" + i + "@mail.com")));
+        }
+    }
+
+    @Test
+    public void mightContain_FalsePositiveRateNearTarget() {
+        CountingBloomFilter filter = CountingBloomFilter.create(ELEMENTS, 0.01, 1 << 20);
+        for (int i = 0; i < ELEMENTS; i++) {
+            filter.add(EmailBloomFilter.hash("user" + i + "@mail.com"));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < ELEMENTS; i++) {
+            if (filter.mightContain(EmailBloomFilter.hash("other" + i + "@mail.com"))) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < ELEMENTS * 0.02, "false positives: " + falsePositives);
+    }
+
+    @Test
+    public void remove_ForgetsElementButKeepsOthers() {
+        CountingBloomFilter filter = CountingBloomFilter.create(ELEMENTS, 0.01, 1 << 20);
+        long removed = EmailBloomFilter.hash("removed@mail.com");
+        long kept = EmailBloomFilter.hash("kept@mail.com");
+        filter.add(removed);
+        filter.add(kept);
+
+        assertTrue(filter.remove(removed));
+
+        assertFalse(filter.mightContain(removed));
+        assertTrue(filter.mightContain(kept));
+        assertFalse(filter.remove(removed));
+    }
+
+    @Test
+    public void create_RespectsMemoryBudget() {
+        CountingBloomFilter filter = CountingBloomFilter.create(1_000_000, 0.001, 1024);
+
+        assertEquals(2048, filter.counters());
+        assertEquals(1024, filter.memoryBytes());
+        assertTrue(filter.hashFunctions() >= 1);
+    }
+
+    @Test
+    public void hash_IgnoresAsciiCaseAndSkipsNonAscii() {
+        assertEquals(EmailBloomFilter.hash("user@mail.com"), EmailBloomFilter.hash("User@Mail.COM"));
+        assertEquals(0, EmailBloomFilter.hash("usér@mail.com"));
+    }
+}
@@ -0,0 +1,147 @@
+package com.serhiihurin.clearsolutionsapi.coalescing;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+    private static final int CALLERS = 4;
+    private static final String EMAIL = "user@example.com";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private RequestCoalescer requestCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        requestCoalescer = new RequestCoalescer(meterRegistry);
+        ReflectionTestUtils.setField(requestCoalescer, "ENABLED", true);
+        ReflectionTestUtils.setField(requestCoalescer, "TIMEOUT", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void execute_ConcurrentIdenticalCalls_ShareOneQuery() throws Exception {
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        List<Future<Object>> calls = startCallers("get", EMAIL, () -> {
+            queries.incrementAndGet();
+            await(release);
+            return result;
+        });
+        awaitWaitingCallers("get", EMAIL, CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> call : calls) {
+            assertSame(result, call.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, queries.get());
+        assertEquals(CALLERS - 1, savedQueries("get"));
+        assertEquals(0, requestCoalescer.waitingCallers("get", EMAIL));
+    }
+
+    @Test
+    public void execute_FailedQuery_PropagatesSameExceptionToWaitingCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ApiRequestException failure = new ApiRequestException("Query failed");
+
+        List<Future<Object>> calls = startCallers("get", EMAIL, () -> {
+            await(release);
+            throw failure;
+        });
+        awaitWaitingCallers("get", EMAIL, CALLERS - 1);
+        release.countDown();
+
+        for (Future<Object> call : calls) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> call.get(5, TimeUnit.SECONDS));
+            assertSame(failure, exception.getCause());
+        }
+        assertEquals(0, requestCoalescer.waitingCallers("get", EMAIL));
+    }
+
+    @Test
+    public void execute_WaitLongerThanTimeout_RunsOwnQuery() throws Exception {
+        ReflectionTestUtils.setField(requestCoalescer, "TIMEOUT", Duration.ofMillis(10));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> slowCall = executor.submit(() -> requestCoalescer.execute("get", EMAIL, () -> {
+            started.countDown();
+            await(release);
+            return "slow";
+        }));
+        await(started);
+
+        Object result = requestCoalescer.execute("get", EMAIL, () -> "own");
+
+        assertEquals("own", result);
+        assertEquals(1, meterRegistry.counter(MetricsConfig.COALESCING_TIMEOUTS_COUNTER, "operation", "get").count());
+        release.countDown();
+        assertEquals("slow", slowCall.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void execute_DifferentKeysOrSequentialCalls_RunSeparateQueries() {
+        AtomicInteger queries = new AtomicInteger();
+
+        requestCoalescer.execute("get", "first@example.com", queries::incrementAndGet);
+        requestCoalescer.execute("get", "second@example.com", queries::incrementAndGet);
+        requestCoalescer.execute("search", "first@example.com", queries::incrementAndGet);
+        requestCoalescer.execute("get", "first@example.com", queries::incrementAndGet);
+
+        assertEquals(4, queries.get());
+        assertEquals(0, savedQueries("get"));
+    }
+
+    private List<Future<Object>> startCallers(String operation, Object key, Supplier<Object> query) {
+        List<Future<Object>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            calls.add(executor.submit(() -> requestCoalescer.execute(operation, key, query)));
+        }
+        return calls;
+    }
+
+    private void awaitWaitingCallers(String operation, Object key, int waitingCallers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (requestCoalescer.waitingCallers(operation, key) < waitingCallers) {
+            assertTrue(System.nanoTime() < deadline, "Callers did not join the running query");
+            Thread.sleep(1);
+        }
+    }
+
+    private double savedQueries(String operation) {
+        return meterRegistry.counter(MetricsConfig.COALESCED_QUERIES_COUNTER, "operation", operation).count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
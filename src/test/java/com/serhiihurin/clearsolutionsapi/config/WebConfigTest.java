@@ -0,0 +1,65 @@
+package com.serhiihurin.clearsolutionsapi.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebConfigTest {
+    private MeterRegistry meterRegistry;
+    private List<MappedInterceptor> interceptors;
+
+    @BeforeEach
+    void setUp() {
+        WriteThrottlingProperties properties = new WriteThrottlingProperties();
+        properties.getRateLimit().setEnabled(false);
+        properties.getConcurrencyLimit().setTargetLatency(Duration.ofMillis(50));
+        properties.getBulkConcurrencyLimit().setTargetLatency(Duration.ofMillis(50));
+        meterRegistry = new SimpleMeterRegistry();
+        InterceptorRegistry registry = new InterceptorRegistry();
+        new WebConfig(properties, meterRegistry).addInterceptors(registry);
+        List<Object> registered = ReflectionTestUtils.invokeMethod(registry, "getInterceptors");
+        interceptors = registered.stream().map(MappedInterceptor.class::cast).toList();
+    }
+
+    @Test
+    public void slowBulkWrites_DoNotShrinkSingleWriteLimit() throws Exception {
+        write("/api/users/bulk", 100);
+        write("/api/users/bulk-delete", 100);
+
+        assertEquals(10, limit("single"));
+        assertEquals(1, limit("bulk"));
+    }
+
+    @Test
+    public void slowSingleWrite_ShrinksSingleWriteLimitOnly() throws Exception {
+        write("/api/users", 100);
+
+        assertEquals(9, limit("single"));
+        assertEquals(2, limit("bulk"));
+    }
+
+    private void write(String path, long durationMillis) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<MappedInterceptor> matching = interceptors.stream().filter(i -> i.matches(request)).toList();
+        assertEquals(1, matching.size());
+        assertTrue(matching.get(0).preHandle(request, response, new Object()));
+        Thread.sleep(durationMillis);
+        matching.get(0).afterCompletion(request, response, new Object(), null);
+    }
+
+    private double limit(String endpoints) {
+        return meterRegistry.get(MetricsConfig.WRITE_CONCURRENCY_LIMIT_GAUGE).tag("endpoints", endpoints).gauge().value();
+    }
+}
@@ -0,0 +1,38 @@
+package com.serhiihurin.clearsolutionsapi.controller;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ETagsTest {
+
+    @Test
+    public void of_EqualContent_SameStrongTag() {
+        String eTag = ETags.of(new UserResponseDTO("a@mail.com", "Ann", "Lee"));
+
+        assertEquals(eTag, ETags.of(new UserResponseDTO("a@mail.com", "Ann", "Lee")));
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\""));
+    }
+
+    @Test
+    public void of_ChangedOrShiftedFields_DifferentTag() {
+        String eTag = ETags.of(new UserResponseDTO("a@mail.com", "Ann", "Lee"));
+
+        assertNotEquals(eTag, ETags.of(new UserResponseDTO("a@mail.com", "Anna", "Lee")));
+        assertNotEquals(eTag, ETags.of(new UserResponseDTO("a@mail.com", "An", "nLee")));
+        assertNotEquals(eTag, ETags.of(new UserResponseDTO("a@mail.com", null, "Lee")));
+    }
+
+    @Test
+    public void of_List_DependsOnOrder() {
+        UserResponseDTO first = new UserResponseDTO("a@mail.com", "Ann", "Lee");
+        UserResponseDTO second = new UserResponseDTO("b@mail.com", "Bo", "Ray");
+
+        assertEquals(ETags.of(List.of(first, second)), ETags.of(List.of(first, second)));
+        assertNotEquals(ETags.of(List.of(first, second)), ETags.of(List.of(second, first)));
+        assertNotEquals(ETags.of(List.of()), ETags.of(List.of(first)));
+    }
+}
@@ -0,0 +1,104 @@
+package com.serhiihurin.clearsolutionsapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.serhiihurin.clearsolutionsapi.controller_advice.ApiExceptionHandler;
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.idempotency.IdempotencyService;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserBatchService;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserImportService;
+import com.serhiihurin.clearsolutionsapi.service.interfaces.UserService;
+import com.serhiihurin.clearsolutionsapi.validation.UserRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class UserControllerTest {
+    @Mock
+    private UserService userService;
+    @Mock
+    private UserImportService userImportService;
+    @Mock
+    private UserBatchService userBatchService;
+    @Mock
+    private IdempotencyService idempotencyService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        UserRequestValidator userRequestValidator = new UserRequestValidator();
+        ReflectionTestUtils.setField(userRequestValidator, "MINIMAL_ALLOWED_AGE", 18);
+        ApiExceptionHandler apiExceptionHandler = new ApiExceptionHandler(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(apiExceptionHandler, "WARNINGS_PER_SECOND", 10.0);
+        ReflectionTestUtils.setField(apiExceptionHandler, "BURST", 50);
+        ReflectionTestUtils.invokeMethod(apiExceptionHandler, "createWarningRateLimiter");
+        UserController userController = new UserController(
+                userService, userRequestValidator, userImportService, userBatchService, idempotencyService, new ObjectMapper()
+        );
+        mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setControllerAdvice(apiExceptionHandler)
+                .build();
+    }
+
+    @Test
+    public void streamUsers_InvalidDate_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/search/stream")
+                        .param("fromDate", "bad")
+                        .param("toDate", "2000-12-31")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(UserRequestValidator.INVALID_DATE_MESSAGE));
+
+        Mockito.verifyNoInteractions(userService);
+    }
+
+    @Test
+    public void streamUsers_FromDateAfterToDate_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/users/search/stream")
+                        .param("fromDate", "2000-12-31")
+                        .param("toDate", "2000-01-01")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(UserRequestValidator.INVALID_DATE_RANGE_MESSAGE));
+
+        Mockito.verifyNoInteractions(userService);
+    }
+
+    @Test
+    public void updateUser_ReturnsResponseWithoutVersion() throws Exception {
+        User user = User.builder()
+                .email("user@example.com")
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(LocalDate.of(2000, 1, 1))
+                .version(3L)
+                .build();
+        Mockito.when(userService.updateUserInfo(Mockito.eq("user@example.com"), Mockito.any(UserRequestDTO.class)))
+                .thenReturn(user);
+
+        mockMvc.perform(patch("/api/users")
+                        .param("email", "user@example.com")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"First\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("user@example.com"))
+                .andExpect(jsonPath("$.firstName").value("First"))
+                .andExpect(jsonPath("$.version").doesNotExist());
+    }
+}
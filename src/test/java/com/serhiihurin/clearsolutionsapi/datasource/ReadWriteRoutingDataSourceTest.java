@@ -0,0 +1,168 @@
+package com.serhiihurin.clearsolutionsapi.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadWriteRoutingDataSourceTest {
+    private ReadWriteRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.end();
+        for (String node : List.of("primary", "replica1", "replica2")) {
+            new JdbcTemplate(database(node)).execute("drop all objects");
+        }
+    }
+
+    @Test
+    void readOnlyTransaction_UsesReplica() {
+        setUp(node("replica1"));
+
+        assertEquals("replica1", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readWriteTransaction_UsesPrimary() {
+        setUp(node("replica1"));
+
+        assertEquals("primary", readWriteTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void noTransaction_UsesPrimary() {
+        setUp(node("replica1"));
+
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void readOnlyTransactions_AreBalancedRoundRobin() {
+        setUp(node("replica1"), node("replica2"));
+
+        String first = readOnlyTransaction.execute(status -> currentNode());
+        String second = readOnlyTransaction.execute(status -> currentNode());
+        String third = readOnlyTransaction.execute(status -> currentNode());
+
+        assertEquals("replica1", first);
+        assertEquals("replica2", second);
+        assertEquals("replica1", third);
+    }
+
+    @Test
+    void unavailableReplica_FallsBackToHealthyReplicaThenPrimary() {
+        DataSource missingReplica = new DelegatingDataSource(node("replica2")) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                throw new SQLException("Replica is down");
+            }
+        };
+        setUp(missingReplica, node("replica1"));
+
+        assertEquals("replica1", readOnlyTransaction.execute(status -> currentNode()));
+        assertEquals("replica1", readOnlyTransaction.execute(status -> currentNode()));
+
+        setUp(missingReplica);
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readAfterWrite_SameClient_UsesPrimary() {
+        setUp(node("replica1"));
+        ReadYourWrites.begin(false, () -> { });
+        assertEquals("replica1", readOnlyTransaction.execute(status -> currentNode()));
+
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("update node set name = name"));
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void readAfterWrite_OtherClient_UsesReplica() {
+        setUp(node("replica1"));
+        AtomicInteger clientAMarkers = new AtomicInteger();
+        ReadYourWrites.begin(false, clientAMarkers::incrementAndGet);
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("update node set name = name"));
+        ReadYourWrites.end();
+
+        ReadYourWrites.begin(false, () -> { });
+        String clientBNode = readOnlyTransaction.execute(status -> currentNode());
+        ReadYourWrites.end();
+        ReadYourWrites.begin(true, () -> { });
+        String clientANode = readOnlyTransaction.execute(status -> currentNode());
+
+        assertEquals(1, clientAMarkers.get());
+        assertEquals("replica1", clientBNode);
+        assertEquals("primary", clientANode);
+    }
+
+    @Test
+    void rolledBackWrite_DoesNotPinClient() {
+        setUp(node("replica1"));
+        ReadYourWrites.begin(false, () -> { });
+
+        readWriteTransaction.executeWithoutResult(status -> {
+            jdbcTemplate.update("update node set name = name");
+            status.setRollbackOnly();
+        });
+
+        assertEquals("replica1", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    @Test
+    void writeOutsideOfClientScope_DoesNotPinAnyClient() {
+        setUp(node("replica1"));
+
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("update node set name = name"));
+
+        ReadYourWrites.begin(false, () -> { });
+        assertEquals("replica1", readOnlyTransaction.execute(status -> currentNode()));
+    }
+
+    private void setUp(DataSource... replicas) {
+        routingDataSource = new ReadWriteRoutingDataSource(node("primary"), List.of(replicas), Duration.ofMinutes(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource node(String name) {
+        DataSource dataSource = database(name);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists node (name varchar(32))");
+        jdbcTemplate.update("delete from node");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+}
@@ -0,0 +1,54 @@
+package com.serhiihurin.clearsolutionsapi.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+    private static final long NOW_MILLIS = 1_000_000L;
+
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(1), () -> NOW_MILLIS);
+
+    @Test
+    void requestWithRecentWrite_IsPinnedToPrimary() throws Exception {
+        assertTrue(pinnedDuring(request(NOW_MILLIS - 500)));
+    }
+
+    @Test
+    void requestWithExpiredWrite_IsNotPinned() throws Exception {
+        assertFalse(pinnedDuring(request(NOW_MILLIS - 1_500)));
+        assertFalse(pinnedDuring(new MockHttpServletRequest()));
+    }
+
+    @Test
+    void committedWrite_SetsLastWriteCookie() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest(), response, (req, res) -> ReadYourWrites.written());
+
+        Cookie cookie = response.getCookie(ReadYourWritesFilter.LAST_WRITE_COOKIE);
+        assertNotNull(cookie);
+        assertEquals(String.valueOf(NOW_MILLIS), cookie.getValue());
+        assertEquals(1, cookie.getMaxAge());
+        assertFalse(ReadYourWrites.isPinnedToPrimary());
+    }
+
+    private boolean pinnedDuring(MockHttpServletRequest request) throws Exception {
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> pinned.set(ReadYourWrites.isPinnedToPrimary()));
+        return pinned.get();
+    }
+
+    private static MockHttpServletRequest request(long lastWriteMillis) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie(ReadYourWritesFilter.LAST_WRITE_COOKIE, String.valueOf(lastWriteMillis)));
+        return request;
+    }
+}
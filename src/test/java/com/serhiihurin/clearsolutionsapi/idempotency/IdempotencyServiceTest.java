@@ -0,0 +1,135 @@
+package com.serhiihurin.clearsolutionsapi.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.serhiihurin.clearsolutionsapi.dao.IdempotencyRecordRepository;
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+import com.serhiihurin.clearsolutionsapi.entity.IdempotencyRecord;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import com.serhiihurin.clearsolutionsapi.exception.ResourceConflictException;
+import com.serhiihurin.clearsolutionsapi.exception.UnprocessableRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+    private static final UserResponseDTO USER = new UserResponseDTO("a@mail.com", "Ann", "Lee");
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    private IdempotencyService idempotencyService;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(idempotencyRecordRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "TTL", Duration.ofHours(1));
+        ReflectionTestUtils.setField(idempotencyService, "MAX_ENTRIES", 100L);
+        ReflectionTestUtils.setField(idempotencyService, "DATABASE_ENABLED", false);
+        idempotencyService.createStore();
+    }
+
+    @Test
+    public void execute_Retry_ReplaysStoredResponse() {
+        IdempotentResponse<UserResponseDTO> first = createUser("key", "fingerprint");
+        IdempotentResponse<UserResponseDTO> retry = createUser("key", "fingerprint");
+
+        assertFalse(first.isReplayed());
+        assertTrue(retry.isReplayed());
+        assertSame(first.getResponse(), retry.getResponse());
+        assertEquals(1, executions.get());
+        Mockito.verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    public void execute_KeyReusedForDifferentRequest_ThrowsException() {
+        createUser("key", "fingerprint");
+
+        UnprocessableRequestException exception = assertThrows(UnprocessableRequestException.class,
+                () -> createUser("key", "other fingerprint"));
+
+        assertEquals("Idempotency-Key key was already used for a different request", exception.getMessage());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void execute_SameKeyInProgress_ThrowsException() {
+        assertThrows(ResourceConflictException.class, () -> idempotencyService.execute(
+                "key", "create-user", UserResponseDTO.class,
+                () -> createUser("key", "fingerprint").getResponse(),
+                () -> "fingerprint"));
+    }
+
+    @Test
+    public void execute_FailedRequest_ReleasesKey() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(
+                "key", "create-user", UserResponseDTO.class,
+                () -> {
+                    throw new IllegalStateException("database down");
+                },
+                () -> "fingerprint"));
+
+        IdempotentResponse<UserResponseDTO> retry = createUser("key", "fingerprint");
+
+        assertFalse(retry.isReplayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void execute_RequestFailedWithError_ReleasesKey() {
+        assertThrows(StackOverflowError.class, () -> idempotencyService.execute(
+                "key", "create-user", UserResponseDTO.class,
+                () -> {
+                    throw new StackOverflowError();
+                },
+                () -> "fingerprint"));
+
+        IdempotentResponse<UserResponseDTO> retry = createUser("key", "fingerprint");
+
+        assertFalse(retry.isReplayed());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    public void execute_BlankKey_ThrowsException() {
+        assertThrows(ApiRequestException.class, () -> createUser(" ", "fingerprint"));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    public void execute_DatabaseEnabled_ReplaysRecordOfAnotherInstance() {
+        ReflectionTestUtils.setField(idempotencyService, "DATABASE_ENABLED", true);
+        Mockito.when(idempotencyRecordRepository.findById("create-user:key")).thenReturn(Optional.of(new IdempotencyRecord(
+                "create-user:key", "fingerprint",
+                "{\"email\":\"a@mail.com\",\"firstName\":\"Ann\",\"lastName\":\"Lee\"}", Instant.now())));
+
+        IdempotentResponse<UserResponseDTO> retry = createUser("key", "fingerprint");
+        IdempotentResponse<UserResponseDTO> secondRetry = createUser("key", "fingerprint");
+
+        assertTrue(retry.isReplayed());
+        assertEquals(USER, retry.getResponse());
+        assertEquals(USER, secondRetry.getResponse());
+        assertEquals(0, executions.get());
+        Mockito.verify(idempotencyRecordRepository, Mockito.times(1)).findById("create-user:key");
+    }
+
+    private IdempotentResponse<UserResponseDTO> createUser(String key, String fingerprint) {
+        return idempotencyService.execute(key, "create-user", UserResponseDTO.class,
+                () -> {
+                    executions.incrementAndGet();
+                    return USER;
+                },
+                () -> fingerprint);
+    }
+}
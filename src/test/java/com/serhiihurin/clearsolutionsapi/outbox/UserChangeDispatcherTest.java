@@ -0,0 +1,79 @@
+package com.serhiihurin.clearsolutionsapi.outbox;
+
+import com.serhiihurin.clearsolutionsapi.dao.UserChangeRecordRepository;
+import com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO;
+import com.serhiihurin.clearsolutionsapi.event.UserChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangeDispatcherTest {
+    private static final Pageable BATCH = Pageable.ofSize(2);
+
+    @Mock
+    private UserChangeRecordRepository userChangeRecordRepository;
+    @Mock
+    private UserChangeSink userChangeSink;
+    private UserChangeDispatcher userChangeDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        userChangeDispatcher = new UserChangeDispatcher(userChangeRecordRepository, userChangeSink, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(userChangeDispatcher, "BATCH_SIZE", 2);
+        userChangeDispatcher.createMeters();
+    }
+
+    @Test
+    public void dispatch_PublishesAndMarksBatchesUntilDrained() {
+        List<UserChangeDTO> firstBatch = List.of(change(1), change(2));
+        List<UserChangeDTO> secondBatch = List.of(change(3));
+        Mockito.when(userChangeRecordRepository.getUndispatchedChanges(BATCH)).thenReturn(firstBatch, secondBatch);
+
+        userChangeDispatcher.dispatch();
+
+        Mockito.verify(userChangeSink).publish(firstBatch);
+        Mockito.verify(userChangeSink).publish(secondBatch);
+        Mockito.verify(userChangeRecordRepository).markDispatched(Mockito.eq(List.of(1L, 2L)), Mockito.any(Instant.class));
+        Mockito.verify(userChangeRecordRepository).markDispatched(Mockito.eq(List.of(3L)), Mockito.any(Instant.class));
+        Mockito.verify(userChangeRecordRepository, Mockito.times(2)).getUndispatchedChanges(BATCH);
+    }
+
+    @Test
+    public void dispatch_FailedPublish_LeavesBatchUndispatched() {
+        List<UserChangeDTO> batch = List.of(change(1), change(2));
+        Mockito.when(userChangeRecordRepository.getUndispatchedChanges(BATCH)).thenReturn(batch);
+        Mockito.doThrow(new IllegalStateException("Sink unavailable")).when(userChangeSink).publish(batch);
+
+        assertDoesNotThrow(() -> userChangeDispatcher.dispatch());
+
+        Mockito.verify(userChangeRecordRepository, Mockito.never())
+                .markDispatched(Mockito.anyCollection(), Mockito.any(Instant.class));
+        Mockito.verify(userChangeRecordRepository, Mockito.times(1)).getUndispatchedChanges(BATCH);
+    }
+
+    @Test
+    public void dispatch_NothingUndispatched_PublishesNothing() {
+        Mockito.when(userChangeRecordRepository.getUndispatchedChanges(BATCH)).thenReturn(List.of());
+
+        userChangeDispatcher.dispatch();
+
+        Mockito.verifyNoInteractions(userChangeSink);
+    }
+
+    private static UserChangeDTO change(long id) {
+        return new UserChangeDTO(id, UserChangeType.DELETED, "user" + id + "@mail.com", "user" + id + "@mail.com",
+                null, null, null, null, Instant.now());
+    }
+}
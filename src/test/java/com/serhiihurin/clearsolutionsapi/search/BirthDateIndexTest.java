@@ -0,0 +1,136 @@
+package com.serhiihurin.clearsolutionsapi.search;
+
+import com.serhiihurin.clearsolutionsapi.config.MetricsConfig;
+import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.SearchCursor;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BirthDateIndexTest {
+    private static final LocalDate FROM = LocalDate.of(1900, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2010, 1, 1);
+    private static final UserSummaryDTO ANNA = summary("anna@mail.com", LocalDate.of(1990, 6, 15));
+    private static final UserSummaryDTO BOHDAN = summary("bohdan@mail.com", LocalDate.of(1990, 6, 15));
+    private static final UserSummaryDTO CLARA = summary("clara@mail.com", LocalDate.of(1991, 1, 1));
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private BirthDateIndex birthDateIndex;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        birthDateIndex = new BirthDateIndex(userRepository, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(birthDateIndex, "MAX_CHANGES", 3);
+        birthDateIndex.registerMetrics();
+        Mockito.when(userRepository.streamAllUserSummaries())
+                .thenAnswer(invocation -> Stream.of(CLARA, ANNA, BOHDAN));
+        birthDateIndex.refresh();
+    }
+
+    @Test
+    public void search_ReturnsRangeInBirthDateAndEmailOrder() {
+        assertTrue(birthDateIndex.isLoaded());
+        assertEquals(List.of(ANNA, BOHDAN, CLARA), birthDateIndex.search(FROM, TO, null, 10));
+        assertEquals(List.of(ANNA, BOHDAN), birthDateIndex.search(FROM, LocalDate.of(1990, 12, 31), null, 10));
+        assertEquals(List.of(CLARA), birthDateIndex.search(LocalDate.of(1991, 1, 1), TO, null, 10));
+    }
+
+    @Test
+    public void search_PagesWithCursor() {
+        List<UserSummaryDTO> firstPage = birthDateIndex.search(FROM, TO, null, 2);
+        UserSummaryDTO last = firstPage.get(firstPage.size() - 1);
+
+        List<UserSummaryDTO> secondPage = birthDateIndex.search(
+                FROM, TO, SearchCursor.of(last.getBirthDate(), last.getEmail()), 2);
+
+        assertEquals(List.of(ANNA, BOHDAN), firstPage);
+        assertEquals(List.of(CLARA), secondPage);
+    }
+
+    @Test
+    public void onUserChanged_MergesChangesIntoResults() {
+        User dana = user("dana@mail.com", LocalDate.of(1990, 6, 15));
+        User movedAnna = user("anna.new@mail.com", LocalDate.of(1995, 3, 3));
+        birthDateIndex.onUserChanged(UserChangedEvent.created(dana));
+        birthDateIndex.onUserChanged(UserChangedEvent.updated("anna@mail.com", ANNA.getBirthDate(), movedAnna));
+        birthDateIndex.onUserChanged(UserChangedEvent.deleted("bohdan@mail.com", BOHDAN.getBirthDate()));
+
+        assertEquals(
+                List.of(summary("dana@mail.com", dana.getBirthDate()), CLARA,
+                        summary("anna.new@mail.com", movedAnna.getBirthDate())),
+                birthDateIndex.search(FROM, TO, null, 10));
+    }
+
+    @Test
+    public void onUserChanged_CompactsChangesIntoSegment() {
+        List<UserSummaryDTO> expected = new ArrayList<>(List.of(ANNA, BOHDAN, CLARA));
+        for (int i = 0; i < 5; i++) {
+            User created = user("user" + i + "@mail.com", LocalDate.of(2000, 1, 1 + i));
+            birthDateIndex.onUserChanged(UserChangedEvent.created(created));
+            expected.add(summary(created.getEmail(), created.getBirthDate()));
+        }
+
+        assertEquals(expected, birthDateIndex.search(FROM, TO, null, 10));
+    }
+
+    @Test
+    public void refresh_CountsDriftFromDatabase() {
+        Mockito.when(userRepository.streamAllUserSummaries())
+                .thenAnswer(invocation -> Stream.of(ANNA, CLARA));
+
+        birthDateIndex.refresh();
+
+        assertEquals(List.of(ANNA, CLARA), birthDateIndex.search(FROM, TO, null, 10));
+        assertEquals(1, meterRegistry.get(MetricsConfig.SEARCH_INDEX_DRIFT_COUNTER).counter().count());
+    }
+
+    @Test
+    public void refresh_KeepsChangesMadeWhileReading() {
+        User dana = user("dana@mail.com", LocalDate.of(1990, 6, 15));
+        Mockito.when(userRepository.streamAllUserSummaries()).thenAnswer(invocation -> {
+            birthDateIndex.onUserChanged(UserChangedEvent.created(dana));
+            return Stream.of(ANNA, BOHDAN, CLARA);
+        });
+
+        birthDateIndex.refresh();
+
+        assertEquals(List.of(ANNA, BOHDAN, summary("dana@mail.com", dana.getBirthDate()), CLARA),
+                birthDateIndex.search(FROM, TO, null, 10));
+        assertEquals(0, meterRegistry.get(MetricsConfig.SEARCH_INDEX_DRIFT_COUNTER).counter().count());
+    }
+
+    private static UserSummaryDTO summary(String email, LocalDate birthDate) {
+        return new UserSummaryDTO(email, "First", "Last", birthDate);
+    }
+
+    private static User user(String email, LocalDate birthDate) {
+        return User.builder()
+                .email(email)
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(birthDate)
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.serhiihurin.clearsolutionsapi.service;
+
+import com.serhiihurin.clearsolutionsapi.config.CacheConfig;
+import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.BulkDeleteReportDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserResponseDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserBatchServiceImplTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache usersCache;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    private UserBatchServiceImpl userBatchService;
+
+    @BeforeEach
+    void setUp() {
+        userBatchService = new UserBatchServiceImpl(userRepository, cacheManager, eventPublisher);
+        ReflectionTestUtils.setField(userBatchService, "MAX_EMAILS", 5);
+        ReflectionTestUtils.setField(userBatchService, "CHUNK_SIZE", 2);
+    }
+
+    @Test
+    public void getUsers_QueriesDistinctEmailsInChunks() {
+        UserResponseDTO first = new UserResponseDTO("a@mail.com", "A", "A");
+        UserResponseDTO third = new UserResponseDTO("c@mail.com", "C", "C");
+        Mockito.when(userRepository.getUsersByEmailIn(List.of("a@mail.com", "b@mail.com"))).thenReturn(List.of(first));
+        Mockito.when(userRepository.getUsersByEmailIn(List.of("c@mail.com"))).thenReturn(List.of(third));
+
+        List<UserResponseDTO> users = userBatchService.getUsers(
+                List.of("a@mail.com", "b@mail.com", "a@mail.com", "c@mail.com"));
+
+        assertEquals(List.of(first, third), users);
+        Mockito.verify(userRepository, Mockito.times(2)).getUsersByEmailIn(Mockito.anyCollection());
+        Mockito.verify(userRepository, Mockito.never()).findById(Mockito.anyString());
+    }
+
+    @Test
+    public void getUsers_EmptyList_ThrowsException() {
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userBatchService.getUsers(Collections.emptyList()));
+
+        assertEquals("The email list cannot be empty", exception.getMessage());
+    }
+
+    @Test
+    public void getUsers_TooManyEmails_ThrowsException() {
+        List<String> emails = List.of("a@mail.com", "b@mail.com", "c@mail.com", "d@mail.com", "e@mail.com", "f@mail.com");
+
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userBatchService.getUsers(emails));
+
+        assertEquals("Too many emails. At most 5 are allowed per request", exception.getMessage());
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    public void deleteUsers_ReportsExistingAndMissingEmails() {
+        Mockito.when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        LocalDate birthDate = LocalDate.of(1990, 1, 1);
+        Mockito.when(userRepository.lockUsersByEmailIn(List.of("a@mail.com", "b@mail.com")))
+                .thenReturn(List.of(new UserSummaryDTO("b@mail.com", "B", "B", birthDate)));
+        Mockito.when(userRepository.lockUsersByEmailIn(List.of("c@mail.com"))).thenReturn(List.of());
+
+        BulkDeleteReportDTO report = userBatchService.deleteUsers(List.of("a@mail.com", "b@mail.com", "c@mail.com"));
+
+        assertEquals(List.of("b@mail.com"), report.getDeleted());
+        assertEquals(List.of("a@mail.com", "c@mail.com"), report.getNotFound());
+        Mockito.verify(userRepository).deleteByEmailIn(List.of("b@mail.com"));
+        Mockito.verify(userRepository, Mockito.times(1)).deleteByEmailIn(Mockito.anyCollection());
+        Mockito.verify(usersCache).evict("b@mail.com");
+        Mockito.verifyNoMoreInteractions(usersCache);
+        Mockito.verify(eventPublisher).publishEvent(UserChangedEvent.deleted("b@mail.com", birthDate));
+        Mockito.verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    public void deleteUsers_MixedCaseEmails_UsesStoredEmails() {
+        Mockito.when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+        LocalDate birthDate = LocalDate.of(1990, 1, 1);
+        Mockito.when(userRepository.lockUsersByEmailIn(List.of("A@Mail.com", "b@mail.com")))
+                .thenReturn(List.of(new UserSummaryDTO("a@mail.com", "A", "A", birthDate)));
+
+        BulkDeleteReportDTO report = userBatchService.deleteUsers(List.of("A@Mail.com", "b@mail.com", "a@MAIL.com"));
+
+        assertEquals(List.of("a@mail.com"), report.getDeleted());
+        assertEquals(List.of("b@mail.com"), report.getNotFound());
+        Mockito.verify(userRepository).deleteByEmailIn(List.of("a@mail.com"));
+        Mockito.verify(usersCache).evict("a@mail.com");
+        Mockito.verify(usersCache).evict("A@Mail.com");
+        Mockito.verifyNoMoreInteractions(usersCache);
+        Mockito.verify(eventPublisher).publishEvent(UserChangedEvent.deleted("a@mail.com", birthDate));
+        Mockito.verifyNoMoreInteractions(eventPublisher);
+    }
+}
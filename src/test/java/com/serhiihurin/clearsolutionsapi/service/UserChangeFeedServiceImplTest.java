@@ -0,0 +1,80 @@
+package com.serhiihurin.clearsolutionsapi.service;
+
+import com.serhiihurin.clearsolutionsapi.dao.UserChangeRecordRepository;
+import com.serhiihurin.clearsolutionsapi.dto.UserChangeDTO;
+import com.serhiihurin.clearsolutionsapi.event.UserChangeType;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserChangeFeedServiceImplTest {
+    @Mock
+    private UserChangeRecordRepository userChangeRecordRepository;
+    private UserChangeFeedServiceImpl userChangeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        userChangeFeedService = new UserChangeFeedServiceImpl(userChangeRecordRepository);
+        ReflectionTestUtils.setField(userChangeFeedService, "MAX_PAGE_SIZE", 1000);
+        ReflectionTestUtils.setField(userChangeFeedService, "SETTLE_TIME", Duration.ofSeconds(2));
+    }
+
+    @Test
+    public void getChanges_ReadsSettledChangesAfterCursor() {
+        UserChangeDTO change = new UserChangeDTO(43, UserChangeType.CREATED, "a@mail.com", "a@mail.com",
+                LocalDate.of(2000, 1, 1), null, "A", "A", Instant.now().minusSeconds(10));
+        ArgumentCaptor<Instant> createdBefore = ArgumentCaptor.forClass(Instant.class);
+        Mockito.when(userChangeRecordRepository.getChangesSince(
+                Mockito.eq(42L), createdBefore.capture(), Mockito.eq(Pageable.ofSize(100))
+        )).thenReturn(List.of(change));
+        Instant before = Instant.now();
+
+        List<UserChangeDTO> changes = userChangeFeedService.getChanges("42", 100);
+
+        assertEquals(List.of(change), changes);
+        assertFalse(createdBefore.getValue().isAfter(Instant.now().minusSeconds(2)));
+        assertFalse(createdBefore.getValue().isBefore(before.minusSeconds(2)));
+    }
+
+    @Test
+    public void getChanges_WithoutCursor_ReadsFromStart() {
+        userChangeFeedService.getChanges(null, 10);
+
+        Mockito.verify(userChangeRecordRepository).getChangesSince(
+                Mockito.eq(0L), Mockito.any(Instant.class), Mockito.eq(Pageable.ofSize(10)));
+    }
+
+    @Test
+    public void getChanges_InvalidCursor_ThrowsException() {
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userChangeFeedService.getChanges("abc", 10));
+
+        assertEquals("Invalid change feed cursor", exception.getMessage());
+        assertThrows(ApiRequestException.class, () -> userChangeFeedService.getChanges("-1", 10));
+        Mockito.verifyNoInteractions(userChangeRecordRepository);
+    }
+
+    @Test
+    public void getChanges_InvalidPageSize_ThrowsException() {
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userChangeFeedService.getChanges("1", 1001));
+
+        assertEquals("Invalid page size. The size should be between 1 and 1000", exception.getMessage());
+        Mockito.verifyNoInteractions(userChangeRecordRepository);
+    }
+}
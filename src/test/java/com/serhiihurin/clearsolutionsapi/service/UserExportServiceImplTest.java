@@ -0,0 +1,158 @@
+package com.serhiihurin.clearsolutionsapi.service;
+
+import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.ExportJobDTO;
+import com.serhiihurin.clearsolutionsapi.dto.ExportJobStatus;
+import com.serhiihurin.clearsolutionsapi.dto.UserExportRowDTO;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import com.serhiihurin.clearsolutionsapi.exception.ResourceConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceImplTest {
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @TempDir
+    private Path exportDirectory;
+    private UserExportServiceImpl userExportService;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportServiceImpl(userRepository, transactionManager);
+        ReflectionTestUtils.setField(userExportService, "DIRECTORY", exportDirectory.toString());
+        ReflectionTestUtils.setField(userExportService, "CONCURRENCY", 1);
+        ReflectionTestUtils.setField(userExportService, "RETENTION", Duration.ofHours(1));
+        userExportService.startExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userExportService.stopExecutor();
+    }
+
+    @Test
+    public void submitExport_WritesGzippedCsv() throws Exception {
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+        Mockito.when(userRepository.count()).thenReturn(2L);
+        Mockito.when(userRepository.streamAllUsersForExport()).thenReturn(Stream.of(
+                new UserExportRowDTO("a@mail.com", "Ann", "Lee", LocalDate.of(1990, 1, 2), "Main St, 1", null),
+                new UserExportRowDTO("b@mail.com", "Bo \"B\"", "Ray", LocalDate.of(1985, 3, 4), null, "+380123456789")
+        ));
+
+        ExportJobDTO submitted = userExportService.submitExport();
+        ExportJobDTO finished = awaitFinished(submitted.getId());
+
+        assertEquals(ExportJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(2, finished.getExportedRows());
+        assertEquals(2, finished.getTotalRows());
+        Path file = userExportService.getExportFile(submitted.getId());
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file))) {
+            assertEquals("""
+                    email,firstName,lastName,birthDate,address,phoneNumber
+                    a@mail.com,Ann,Lee,1990-01-02,"Main St, 1",
+                    b@mail.com,"Bo ""B""",Ray,1985-03-04,,+380123456789
+                    """, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void submitExport_QueryFails_ReportsFailedJob() throws Exception {
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+        Mockito.when(userRepository.streamAllUsersForExport()).thenThrow(new IllegalStateException("connection lost"));
+
+        ExportJobDTO finished = awaitFinished(userExportService.submitExport().getId());
+
+        assertEquals(ExportJobStatus.FAILED, finished.getStatus());
+        assertThrows(RuntimeException.class, () -> userExportService.getExportFile(finished.getId()));
+    }
+
+    @Test
+    public void submitExport_ExportInProgress_ThrowsConflict() throws Exception {
+        CountDownLatch exportStarted = new CountDownLatch(1);
+        CountDownLatch releaseExport = new CountDownLatch(1);
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenAnswer(invocation -> {
+            exportStarted.countDown();
+            releaseExport.await(10, TimeUnit.SECONDS);
+            return new SimpleTransactionStatus();
+        });
+        Mockito.when(userRepository.streamAllUsersForExport()).thenAnswer(invocation -> Stream.empty());
+
+        ExportJobDTO running = userExportService.submitExport();
+        assertTrue(exportStarted.await(10, TimeUnit.SECONDS));
+
+        assertThrows(ResourceConflictException.class, () -> userExportService.submitExport());
+
+        releaseExport.countDown();
+        assertEquals(ExportJobStatus.COMPLETED, awaitFinished(running.getId()).getStatus());
+        assertEquals(ExportJobStatus.COMPLETED, awaitFinished(userExportService.submitExport().getId()).getStatus());
+    }
+
+    @Test
+    public void purgeExpiredJobs_RemovesFinishedJobAndFile() throws Exception {
+        Mockito.when(transactionManager.getTransaction(Mockito.any())).thenReturn(new SimpleTransactionStatus());
+        Mockito.when(userRepository.streamAllUsersForExport()).thenReturn(Stream.empty());
+        String id = awaitFinished(userExportService.submitExport().getId()).getId();
+        Path file = userExportService.getExportFile(id);
+        ReflectionTestUtils.setField(userExportService, "RETENTION", Duration.ZERO);
+
+        userExportService.purgeExpiredJobs();
+
+        assertThrows(ApiRequestException.class, () -> userExportService.getExport(id));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void getExport_UnknownId_ThrowsException() {
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userExportService.getExport("missing"));
+
+        assertEquals("Could not find export with id: missing", exception.getMessage());
+    }
+
+    @Test
+    public void writeField_QuotesOnlyWhenNeeded() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        UserExportServiceImpl.writeField(writer, "plain");
+        UserExportServiceImpl.writeField(writer, "line\nbreak");
+
+        assertEquals("plain\"line\nbreak\"", writer.toString());
+    }
+
+    private ExportJobDTO awaitFinished(String id) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        ExportJobDTO exportJob = userExportService.getExport(id);
+        while (exportJob.getFinishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            exportJob = userExportService.getExport(id);
+        }
+        return exportJob;
+    }
+}
@@ -1,22 +1,39 @@
 package com.serhiihurin.clearsolutionsapi.service;
 
+import com.serhiihurin.clearsolutionsapi.bloom.EmailBloomFilter;
+import com.serhiihurin.clearsolutionsapi.coalescing.RequestCoalescer;
+import com.serhiihurin.clearsolutionsapi.config.CacheConfig;
 import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.SearchCursor;
 import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.dto.UserSummaryDTO;
 import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
 import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
 import com.serhiihurin.clearsolutionsapi.exception.UnsatisfiedAgeException;
+import com.serhiihurin.clearsolutionsapi.search.BirthDateIndex;
 import com.serhiihurin.clearsolutionsapi.service.interfaces.UserService;
+import com.serhiihurin.clearsolutionsapi.validation.UserRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,16 +45,36 @@ import static org.junit.jupiter.api.Assertions.*;
 class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ObjectProvider<BirthDateIndex> birthDateIndex;
+    @Mock
+    private ObjectProvider<EmailBloomFilter> emailBloomFilter;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache usersCache;
     private UserService userService;
     private User testUser;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository);
-        ReflectionTestUtils.setField(userService, "MINIMAL_ALLOWED_AGE", 18);
+        UserRequestValidator userRequestValidator = new UserRequestValidator();
+        ReflectionTestUtils.setField(userRequestValidator, "MINIMAL_ALLOWED_AGE", 18);
+        RequestCoalescer requestCoalescer = new RequestCoalescer(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(requestCoalescer, "ENABLED", true);
+        ReflectionTestUtils.setField(requestCoalescer, "TIMEOUT", Duration.ofSeconds(1));
+        userService = new UserServiceImpl(
+                userRepository, userRequestValidator, eventPublisher, requestCoalescer, birthDateIndex, emailBloomFilter,
+                new TransactionTemplate(transactionManager), cacheManager
+        );
+        ReflectionTestUtils.setField(userService, "MAX_PAGE_SIZE", 1000);
         testUser = User.builder()
-                .email("testemail.gmail.com")
+                .email("testemail@gmail.com")
                 .firstName("testfirstname")
                 .lastName("testlastname")
                 .birthDate(LocalDate.parse("2003-10-13", formatter))
@@ -52,7 +89,7 @@ class UserServiceImplTest {
         String searchTo = "2000-12-31";
 
         ApiRequestException exception = assertThrows(ApiRequestException.class,
-                () -> userService.searchUsersByBirthDate(searchFrom, searchTo));
+                () -> userService.searchUsersByBirthDate(searchFrom, searchTo, null, 10));
 
         assertEquals("Invalid date format. The format should be yyyy-MM-dd", exception.getMessage());
     }
@@ -63,7 +100,7 @@ class UserServiceImplTest {
         String searchTo = "31-2000-12";
 
         ApiRequestException exception = assertThrows(ApiRequestException.class,
-                () -> userService.searchUsersByBirthDate(searchFrom, searchTo));
+                () -> userService.searchUsersByBirthDate(searchFrom, searchTo, null, 10));
 
         assertEquals("Invalid date format. The format should be yyyy-MM-dd", exception.getMessage());
     }
@@ -74,27 +111,47 @@ class UserServiceImplTest {
         String searchTo = "2000-01-01";
 
         ApiRequestException exception = assertThrows(ApiRequestException.class,
-                () -> userService.searchUsersByBirthDate(searchFrom, searchTo));
+                () -> userService.searchUsersByBirthDate(searchFrom, searchTo, null, 10));
 
         assertEquals("Invalid request parameters of date", exception.getMessage());
     }
 
     @Test
-    void searchUsersByBirthDate() {
-        String searchFrom = "2003-01-01";
-        String searchTo = "2003-12-31";
+    void searchUsersByBirthDate_FirstPage() {
+        LocalDate fromDate = LocalDate.parse("2003-01-01", formatter);
+        LocalDate toDate = LocalDate.parse("2003-12-31", formatter);
+        Mockito.when(userRepository.getUsersPageByBirthDateBetween(fromDate, toDate, Pageable.ofSize(10)))
+                .thenReturn(List.of(new UserSummaryDTO(
+                        testUser.getEmail(), testUser.getFirstName(), testUser.getLastName(), testUser.getBirthDate()
+                )));
+
+        List<UserSummaryDTO> result = userService.searchUsersByBirthDate("2003-01-01", "2003-12-31", null, 10);
+
+        assertEquals(1, result.size());
+        Mockito.verify(userRepository, Mockito.never()).getUsersPageByBirthDateBetweenAfter(
+                Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void searchUsersByBirthDate_AfterCursor() {
+        LocalDate fromDate = LocalDate.parse("2003-01-01", formatter);
+        LocalDate toDate = LocalDate.parse("2003-12-31", formatter);
+        SearchCursor cursor = SearchCursor.decode(
+                SearchCursor.of(testUser.getBirthDate(), testUser.getEmail()).encode()
+        );
 
-        LocalDate fromDate = LocalDate.parse(searchFrom, formatter);
-        LocalDate toDate = LocalDate.parse(searchTo, formatter);
+        userService.searchUsersByBirthDate("2003-01-01", "2003-12-31", cursor, 10);
 
-        List<User> expectedUsers = Collections.singletonList(testUser);
-        Mockito.when(userRepository.getUsersByBirthDateBetween(fromDate, toDate)).thenReturn(expectedUsers);
+        Mockito.verify(userRepository, Mockito.times(1)).getUsersPageByBirthDateBetweenAfter(
+                fromDate, toDate, testUser.getBirthDate(), testUser.getEmail(), Pageable.ofSize(10));
+    }
 
-        List<User> result = userService.searchUsersByBirthDate(searchFrom, searchTo);
+    @Test
+    public void searchUsersByBirthDate_InvalidPageSize_ThrowsException() {
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userService.searchUsersByBirthDate("2003-01-01", "2003-12-31", null, 0));
 
-        assertNotNull(result);
-        assertEquals(1, result.size());
-        Mockito.verify(userRepository, Mockito.times(1)).getUsersByBirthDateBetween(fromDate, toDate);
+        assertEquals("Invalid page size. The size should be between 1 and 1000", exception.getMessage());
     }
 
     @Test
@@ -107,9 +164,25 @@ class UserServiceImplTest {
                 .isEqualTo(testUser);
     }
 
+    @Test
+    public void getUser_EmailFilterMiss_ThrowsWithoutQuery() {
+        String email = "nonexistent@example.com";
+        EmailBloomFilter filter = Mockito.mock(EmailBloomFilter.class);
+        Mockito.when(emailBloomFilter.getIfAvailable()).thenReturn(filter);
+        Mockito.when(filter.mightContain(email)).thenReturn(false);
+
+        ApiRequestException exception = assertThrows(ApiRequestException.class, () -> userService.getUser(email));
+
+        assertEquals("Could not find user with email: " + email, exception.getMessage());
+        Mockito.verifyNoInteractions(userRepository);
+    }
+
     @Test
     public void createUser_WithInvalidPhoneNumber_ThrowsException() {
         UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .email("user@example.com")
+                .firstName("First")
+                .lastName("Last")
                 .phoneNumber("12345")
                 .birthDate("2000-01-01")
                 .build();
@@ -123,6 +196,9 @@ class UserServiceImplTest {
     @Test
     public void testCreateUser_WithInvalidDateFormat_ThrowsException() {
         UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .email("user@example.com")
+                .firstName("First")
+                .lastName("Last")
                 .phoneNumber("+12345678901")
                 .birthDate("01-012000")
                 .build();
@@ -136,6 +212,9 @@ class UserServiceImplTest {
     @Test
     public void createUser_BirthDateLaterThanCurrentDate_ThrowsException() {
         UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .email("user@example.com")
+                .firstName("First")
+                .lastName("Last")
                 .phoneNumber("+12345678901")
                 .birthDate(LocalDate.now().plusYears(1).format(formatter))
                 .build();
@@ -149,8 +228,11 @@ class UserServiceImplTest {
     @Test
     public void createUser_UserUnderMinimalAllowedAge_ThrowsException() {
         UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .email("user@example.com")
+                .firstName("First")
+                .lastName("Last")
                 .phoneNumber("+12345678901")
-                .birthDate("2007-12-10")
+                .birthDate(LocalDate.now().minusYears(17).format(formatter))
                 .build();
 
         UnsatisfiedAgeException exception = assertThrows(UnsatisfiedAgeException.class,
@@ -162,7 +244,7 @@ class UserServiceImplTest {
     @Test
     void createUser_Success() {
         UserRequestDTO userRequestDTO = UserRequestDTO.builder()
-                .email("testemail.gmail.com")
+                .email("testemail@gmail.com")
                 .firstName("testfirstname")
                 .lastName("testlastname")
                 .birthDate("2003-10-13")
@@ -199,12 +281,11 @@ class UserServiceImplTest {
                 .birthDate("invalid-date")
                 .build();
 
-        Mockito.when(userRepository.findById(testUser.getEmail())).thenReturn(Optional.of(testUser));
-
         ApiRequestException exception = assertThrows(ApiRequestException.class,
                 () -> userService.updateUserInfo(testUser.getEmail(), userRequestDTO));
 
         assertEquals("Invalid date format. The format should be yyyy-MM-dd", exception.getMessage());
+        Mockito.verify(userRepository, Mockito.never()).findById(Mockito.anyString());
     }
 
     @Test
@@ -214,12 +295,11 @@ class UserServiceImplTest {
                 .build();
         userRequestDTO.setPhoneNumber("invalid-phone");
 
-        Mockito.when(userRepository.findById(testUser.getEmail())).thenReturn(Optional.of(testUser));
-
         ApiRequestException exception = assertThrows(ApiRequestException.class,
                 () -> userService.updateUserInfo(testUser.getEmail(), userRequestDTO));
 
         assertEquals("Invalid phone number", exception.getMessage());
+        Mockito.verify(userRepository, Mockito.never()).findById(Mockito.anyString());
     }
 
     @Test
@@ -233,7 +313,6 @@ class UserServiceImplTest {
                 .build();
 
         Mockito.when(userRepository.findById(testUser.getEmail())).thenReturn(Optional.of(testUser));
-        Mockito.when(userRepository.save(testUser)).thenReturn(testUser);
 
         User updatedUser = userService.updateUserInfo(testUser.getEmail(), userRequestDTO);
 
@@ -244,7 +323,9 @@ class UserServiceImplTest {
         assertEquals("123 Street", updatedUser.getAddress());
         assertEquals("+1234567890", updatedUser.getPhoneNumber());
         Mockito.verify(userRepository, Mockito.times(1)).findById(testUser.getEmail());
-        Mockito.verify(userRepository, Mockito.times(1)).save(testUser);
+        Mockito.verify(userRepository, Mockito.never()).save(Mockito.any(User.class));
+        Mockito.verify(eventPublisher).publishEvent(UserChangedEvent.updated(
+                updatedUser.getEmail(), LocalDate.parse("2003-10-13", formatter), updatedUser));
     }
 
     @Test
@@ -253,14 +334,43 @@ class UserServiceImplTest {
         UserRequestDTO userRequestDTO = UserRequestDTO.builder()
                 .email(newEmail)
                 .build();
-        Mockito.when(userRepository.findById(testUser.getEmail())).thenReturn(Optional.of(testUser));
-        Mockito.when(userRepository.save(Mockito.any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        String oldEmail = testUser.getEmail();
+        Mockito.when(userRepository.findById(oldEmail)).thenReturn(Optional.of(testUser));
+        Mockito.when(userRepository.changeEmail(oldEmail, newEmail, 0L)).thenReturn(1);
 
-        User updatedUser = userService.updateUserInfo(testUser.getEmail(), userRequestDTO);
+        User updatedUser = userService.updateUserInfo(oldEmail, userRequestDTO);
 
         assertNotNull(updatedUser);
         assertEquals(newEmail, updatedUser.getEmail());
-        Mockito.verify(userRepository, Mockito.times(1)).save(Mockito.any(User.class));
+        assertEquals(1L, updatedUser.getVersion());
+        Mockito.verify(userRepository, Mockito.times(1)).flush();
+        Mockito.verify(userRepository, Mockito.never()).deleteById(Mockito.anyString());
+    }
+
+    @Test
+    public void updateUserInfo_EmailChangedConcurrently_ThrowsException() {
+        String oldEmail = testUser.getEmail();
+        UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .email("new@example.com")
+                .build();
+        Mockito.when(userRepository.findById(oldEmail)).thenReturn(Optional.of(testUser));
+        Mockito.when(userRepository.changeEmail(oldEmail, "new@example.com", 0L)).thenReturn(0);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> userService.updateUserInfo(oldEmail, userRequestDTO));
+    }
+
+    @Test
+    public void updateUserInfo_InvalidNewEmail_ThrowsException() {
+        UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .email("new.example.com")
+                .build();
+
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userService.updateUserInfo(testUser.getEmail(), userRequestDTO));
+
+        assertEquals("Invalid email format", exception.getMessage());
+        Mockito.verify(userRepository, Mockito.never()).findById(Mockito.anyString());
     }
 
     @Test
@@ -276,6 +386,19 @@ class UserServiceImplTest {
         Mockito.verify(userRepository, Mockito.never()).delete(Mockito.any(User.class));
     }
 
+    @Test
+    public void deleteUser_EmailFilterMiss_ThrowsWithoutTransaction() {
+        String email = "nonexistent@example.com";
+        EmailBloomFilter filter = Mockito.mock(EmailBloomFilter.class);
+        Mockito.when(emailBloomFilter.getIfAvailable()).thenReturn(filter);
+        Mockito.when(filter.mightContain(email)).thenReturn(false);
+
+        ApiRequestException exception = assertThrows(ApiRequestException.class, () -> userService.deleteUser(email));
+
+        assertEquals("Could not find user with email: " + email, exception.getMessage());
+        Mockito.verifyNoInteractions(transactionManager, userRepository);
+    }
+
     @Test
     void deleteUser() {
         Mockito.when(userRepository.findById(testUser.getEmail())).thenReturn(Optional.of(testUser));
@@ -285,4 +408,40 @@ class UserServiceImplTest {
         Mockito.verify(userRepository, Mockito.times(1)).findById(testUser.getEmail());
         Mockito.verify(userRepository, Mockito.times(1)).delete(testUser);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void updateUserInfo_MixedCaseEmail_UsesStoredEmail() {
+        String email = "TestEmail@Gmail.com";
+        testUser.setEmail("testemail@gmail.com");
+        LocalDate previousBirthDate = testUser.getBirthDate();
+        UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .email("new@example.com")
+                .build();
+        Mockito.when(userRepository.findById(email)).thenReturn(Optional.of(testUser));
+        Mockito.when(userRepository.changeEmail("testemail@gmail.com", "new@example.com", 0L)).thenReturn(1);
+        Mockito.when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+
+        userService.updateUserInfo(email, userRequestDTO);
+
+        ArgumentCaptor<UserChangedEvent> event = ArgumentCaptor.forClass(UserChangedEvent.class);
+        Mockito.verify(eventPublisher).publishEvent(event.capture());
+        assertEquals("testemail@gmail.com", event.getValue().getPreviousEmail());
+        assertEquals("new@example.com", event.getValue().getEmail());
+        assertEquals(previousBirthDate, event.getValue().getPreviousBirthDate());
+        Mockito.verify(usersCache).evict("testemail@gmail.com");
+    }
+
+    @Test
+    public void deleteUser_MixedCaseEmail_UsesStoredEmail() {
+        String email = "TestEmail@Gmail.com";
+        testUser.setEmail("testemail@gmail.com");
+        Mockito.when(userRepository.findById(email)).thenReturn(Optional.of(testUser));
+        Mockito.when(cacheManager.getCache(CacheConfig.USERS_CACHE)).thenReturn(usersCache);
+
+        userService.deleteUser(email);
+
+        Mockito.verify(eventPublisher).publishEvent(
+                UserChangedEvent.deleted("testemail@gmail.com", testUser.getBirthDate()));
+        Mockito.verify(usersCache).evict("testemail@gmail.com");
+    }
+}
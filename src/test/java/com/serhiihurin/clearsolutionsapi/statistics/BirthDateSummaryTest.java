@@ -0,0 +1,94 @@
+package com.serhiihurin.clearsolutionsapi.statistics;
+
+import com.serhiihurin.clearsolutionsapi.dao.UserRepository;
+import com.serhiihurin.clearsolutionsapi.dto.BirthDateCountDTO;
+import com.serhiihurin.clearsolutionsapi.dto.HistogramBucketDTO;
+import com.serhiihurin.clearsolutionsapi.dto.HistogramType;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.event.UserChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+class BirthDateSummaryTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 6, 15);
+    private static final LocalDate FROM = LocalDate.of(1900, 1, 1);
+
+    @Mock
+    private UserRepository userRepository;
+    private BirthDateSummary birthDateSummary;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(userRepository.countUsersByBirthDate()).thenReturn(List.of(
+                new BirthDateCountDTO(LocalDate.of(1990, 6, 15), 2),
+                new BirthDateCountDTO(LocalDate.of(1990, 6, 16), 1),
+                new BirthDateCountDTO(LocalDate.of(1991, 1, 1), 4)
+        ));
+        birthDateSummary = new BirthDateSummary(userRepository);
+        birthDateSummary.refresh();
+    }
+
+    @Test
+    public void histogram_ByAge_CountsFullYears() {
+        List<HistogramBucketDTO> histogram = birthDateSummary.histogram(HistogramType.AGE, FROM, TODAY, TODAY);
+
+        assertTrue(birthDateSummary.isLoaded());
+        assertEquals(List.of(new HistogramBucketDTO(33, 5), new HistogramBucketDTO(34, 2)), histogram);
+    }
+
+    @Test
+    public void histogram_ByMonth_WithinRange() {
+        List<HistogramBucketDTO> histogram = birthDateSummary.histogram(
+                HistogramType.MONTH, LocalDate.of(1990, 6, 16), TODAY, TODAY);
+
+        assertEquals(List.of(new HistogramBucketDTO(1, 4), new HistogramBucketDTO(6, 1)), histogram);
+    }
+
+    @Test
+    public void onUserChanged_AdjustsCounts() {
+        birthDateSummary.onUserChanged(UserChangedEvent.created(user("new@mail.com", LocalDate.of(1980, 2, 2))));
+        birthDateSummary.onUserChanged(UserChangedEvent.deleted("old@mail.com", LocalDate.of(1991, 1, 1)));
+        birthDateSummary.onUserChanged(UserChangedEvent.updated(
+                "a@mail.com", LocalDate.of(1990, 6, 16), user("a@mail.com", LocalDate.of(1980, 2, 2))));
+
+        List<HistogramBucketDTO> histogram = birthDateSummary.histogram(HistogramType.BIRTH_YEAR, FROM, TODAY, TODAY);
+
+        assertEquals(List.of(
+                new HistogramBucketDTO(1980, 2),
+                new HistogramBucketDTO(1990, 2),
+                new HistogramBucketDTO(1991, 3)
+        ), histogram);
+    }
+
+    @Test
+    public void refresh_UserChangedDuringRefresh_KeepsChange() {
+        Mockito.when(userRepository.countUsersByBirthDate()).thenAnswer(invocation -> {
+            birthDateSummary.onUserChanged(UserChangedEvent.created(user("new@mail.com", LocalDate.of(1980, 2, 2))));
+            return List.of(new BirthDateCountDTO(LocalDate.of(1990, 6, 15), 2));
+        });
+
+        birthDateSummary.refresh();
+        List<HistogramBucketDTO> histogram = birthDateSummary.histogram(HistogramType.BIRTH_YEAR, FROM, TODAY, TODAY);
+
+        assertEquals(List.of(new HistogramBucketDTO(1980, 1), new HistogramBucketDTO(1990, 2)), histogram);
+    }
+
+    private static User user(String email, LocalDate birthDate) {
+        return User.builder()
+                .email(email)
+                .firstName("First")
+                .lastName("Last")
+                .birthDate(birthDate)
+                .build();
+    }
+}
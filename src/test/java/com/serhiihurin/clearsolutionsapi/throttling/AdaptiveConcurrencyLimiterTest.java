@@ -0,0 +1,80 @@
+package com.serhiihurin.clearsolutionsapi.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+    private static final long TARGET_LATENCY = 100;
+
+    @Test
+    public void tryAcquire_RejectsOverLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET_LATENCY);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(TARGET_LATENCY);
+
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    public void release_SlowRequestDecreasesLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, TARGET_LATENCY);
+
+        limiter.tryAcquire();
+        limiter.release(TARGET_LATENCY + 1);
+
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    public void release_FastRequestsIncreaseLimitUpToMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 3, TARGET_LATENCY);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(1);
+        }
+
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void release_NeverBelowMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 2, 10, TARGET_LATENCY);
+
+        limiter.tryAcquire();
+        limiter.release(TARGET_LATENCY * 10);
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void release_BurstOfSlowRequestsDecreasesLimitOnce() {
+        AtomicLong now = new AtomicLong();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, TARGET_LATENCY, now::get);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        now.addAndGet(TARGET_LATENCY * 10);
+        for (int i = 0; i < 10; i++) {
+            limiter.release(TARGET_LATENCY * 10);
+        }
+
+        assertEquals(9, limiter.getLimit());
+
+        limiter.tryAcquire();
+        now.addAndGet(TARGET_LATENCY * 10);
+        limiter.release(TARGET_LATENCY * 10);
+
+        assertEquals(8, limiter.getLimit());
+    }
+}
@@ -0,0 +1,43 @@
+package com.serhiihurin.clearsolutionsapi.throttling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+    private final TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(10, 3, 100, now::get);
+
+    @Test
+    public void tryAcquire_AllowsBurstThenRejects() {
+        assertTrue(rateLimiter.tryAcquire("client"));
+        assertTrue(rateLimiter.tryAcquire("client"));
+        assertTrue(rateLimiter.tryAcquire("client"));
+        assertFalse(rateLimiter.tryAcquire("client"));
+    }
+
+    @Test
+    public void tryAcquire_RefillsOneTokenPerInterval() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("client");
+        }
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertTrue(rateLimiter.tryAcquire("client"));
+        assertFalse(rateLimiter.tryAcquire("client"));
+    }
+
+    @Test
+    public void tryAcquire_SeparateBucketPerClient() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire("noisy");
+        }
+
+        assertFalse(rateLimiter.tryAcquire("noisy"));
+        assertTrue(rateLimiter.tryAcquire("quiet"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.serhiihurin.clearsolutionsapi.throttling;
+
+import com.serhiihurin.clearsolutionsapi.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteThrottlingInterceptorTest {
+    private static final String CLIENT_HEADER = "X-Client-Id";
+    private static final String PROXY = "10.0.0.5";
+
+    private final WriteThrottlingInterceptor interceptor = new WriteThrottlingInterceptor(
+            new TokenBucketRateLimiter(1, 1, 100, () -> 0L), null, CLIENT_HEADER, Set.of(PROXY),
+            new SimpleMeterRegistry());
+
+    @Test
+    public void preHandle_RotatedHeaderFromUntrustedAddress_SharesBucket() {
+        assertTrue(interceptor.preHandle(write("192.168.0.1", "first"), new MockHttpServletResponse(), new Object()));
+
+        assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(write("192.168.0.1", "second"), new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    public void preHandle_HeaderFromTrustedProxy_NamesClient() {
+        assertTrue(interceptor.preHandle(write(PROXY, "first"), new MockHttpServletResponse(), new Object()));
+        assertTrue(interceptor.preHandle(write(PROXY, "second"), new MockHttpServletResponse(), new Object()));
+
+        assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(write(PROXY, "first"), new MockHttpServletResponse(), new Object()));
+    }
+
+    private static MockHttpServletRequest write(String remoteAddress, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users");
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader(CLIENT_HEADER, clientId);
+        return request;
+    }
+}
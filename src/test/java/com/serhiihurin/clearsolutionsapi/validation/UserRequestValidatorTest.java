@@ -0,0 +1,163 @@
+package com.serhiihurin.clearsolutionsapi.validation;
+
+import com.serhiihurin.clearsolutionsapi.dto.UserRequestDTO;
+import com.serhiihurin.clearsolutionsapi.entity.User;
+import com.serhiihurin.clearsolutionsapi.exception.ApiRequestException;
+import com.serhiihurin.clearsolutionsapi.exception.UnsatisfiedAgeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserRequestValidatorTest {
+    private UserRequestValidator userRequestValidator;
+
+    @BeforeEach
+    void setUp() {
+        userRequestValidator = new UserRequestValidator();
+        ReflectionTestUtils.setField(userRequestValidator, "MINIMAL_ALLOWED_AGE", 18);
+    }
+
+    @Test
+    void tryParseDate() {
+        assertEquals(LocalDate.of(2003, 10, 13), userRequestValidator.tryParseDate("2003-10-13"));
+        assertNull(userRequestValidator.tryParseDate("2003-1-13"));
+        assertNull(userRequestValidator.tryParseDate("2003/10/13"));
+        assertNull(userRequestValidator.tryParseDate("20a3-10-13"));
+        assertNull(userRequestValidator.tryParseDate("2003-02-30"));
+        assertNull(userRequestValidator.tryParseDate(null));
+    }
+
+    @Test
+    void isValidPhoneNumber() {
+        assertTrue(userRequestValidator.isValidPhoneNumber("+380123456789"));
+        assertTrue(userRequestValidator.isValidPhoneNumber(null));
+        assertTrue(userRequestValidator.isValidPhoneNumber(" "));
+        assertFalse(userRequestValidator.isValidPhoneNumber("+123456789"));
+        assertFalse(userRequestValidator.isValidPhoneNumber("380123456789"));
+        assertFalse(userRequestValidator.isValidPhoneNumber("+38012345678a"));
+    }
+
+    @Test
+    void isValidEmail() {
+        assertTrue(userRequestValidator.isValidEmail("user@example.com"));
+        assertTrue(userRequestValidator.isValidEmail("@a@b.com"));
+        assertTrue(userRequestValidator.isValidEmail("a@b@c.d"));
+        assertFalse(userRequestValidator.isValidEmail("@b.com"));
+        assertFalse(userRequestValidator.isValidEmail("a@.com"));
+        assertFalse(userRequestValidator.isValidEmail("a@b."));
+        assertFalse(userRequestValidator.isValidEmail("a.b@c"));
+        assertFalse(userRequestValidator.isValidEmail("a@b.c\n"));
+    }
+
+    @Test
+    void isValidEmail_MatchesUserEmailPattern() {
+        Pattern pattern = Pattern.compile(".+@.+\\..+");
+        for (String email : List.of("a@b.c", "@a@b.com", "@@a.b", "a@@.b", "a@b..", ".@..", "a.b.c@d", "@.a@.b",
+                "a@b.c@", "a b@c.d", "a@b\r.c", "@", "a@b", "a.@b.c")) {
+            assertEquals(pattern.matcher(email).matches(), userRequestValidator.isValidEmail(email), email);
+        }
+    }
+
+    @Test
+    void toNewUser_MultipleInvalidFields_ReportsAllErrors() {
+        UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .phoneNumber("12345")
+                .birthDate("01-012000")
+                .build();
+
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userRequestValidator.toNewUser(userRequestDTO));
+
+        assertEquals("Invalid email format; first name cannot be empty; last name cannot be empty; "
+                + "Invalid phone number; Invalid date format. The format should be yyyy-MM-dd", exception.getMessage());
+    }
+
+    @Test
+    void toNewUser_InvalidFieldsAndAge_ReportsAllErrors() {
+        UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .email("user.example.com")
+                .firstName(" ")
+                .lastName("Last")
+                .phoneNumber("12345")
+                .birthDate(LocalDate.now().plusDays(1).toString())
+                .build();
+
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userRequestValidator.toNewUser(userRequestDTO));
+
+        assertEquals("Invalid email format; first name cannot be empty; Invalid phone number; "
+                + "birth date cannot be later than current date", exception.getMessage());
+    }
+
+    @Test
+    void validateUpdate_InvalidFieldsAndAge_ReportsAllErrors() {
+        UserRequestDTO userRequestDTO = UserRequestDTO.builder()
+                .email("user@example")
+                .lastName("")
+                .birthDate(LocalDate.now().minusYears(17).toString())
+                .build();
+
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userRequestValidator.validateUpdate(userRequestDTO));
+
+        assertEquals("last name cannot be empty; Invalid email format; User age is less than 18",
+                exception.getMessage());
+    }
+
+    @Test
+    void toNewUser_MissingBirthDate_ThrowsException() {
+        UserRequestDTO userRequestDTO = validRequest()
+                .birthDate(null)
+                .build();
+
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userRequestValidator.toNewUser(userRequestDTO));
+
+        assertEquals("birth date cannot be empty", exception.getMessage());
+    }
+
+    @Test
+    void toNewUser_EighteenthBirthdayTomorrow_ThrowsException() {
+        UserRequestDTO userRequestDTO = validRequest()
+                .birthDate(LocalDate.now().minusYears(18).plusDays(1).toString())
+                .build();
+
+        assertThrows(UnsatisfiedAgeException.class, () -> userRequestValidator.toNewUser(userRequestDTO));
+    }
+
+    @Test
+    void toNewUser_InvalidRequest_ThrowsWithoutStackTrace() {
+        UserRequestDTO userRequestDTO = UserRequestDTO.builder().build();
+
+        ApiRequestException exception = assertThrows(ApiRequestException.class,
+                () -> userRequestValidator.toNewUser(userRequestDTO));
+
+        assertEquals(0, exception.getStackTrace().length);
+    }
+
+    @Test
+    void toNewUser_EighteenthBirthdayToday() {
+        UserRequestDTO userRequestDTO = validRequest()
+                .birthDate(LocalDate.now().minusYears(18).toString())
+                .build();
+
+        User user = userRequestValidator.toNewUser(userRequestDTO);
+
+        assertEquals("user@example.com", user.getEmail());
+        assertEquals(LocalDate.now().minusYears(18), user.getBirthDate());
+    }
+
+    private static UserRequestDTO.UserRequestDTOBuilder validRequest() {
+        return UserRequestDTO.builder()
+                .email("user@example.com")
+                .firstName("First")
+                .lastName("Last")
+                .birthDate("2000-01-01");
+    }
+}